@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Бенчмарк записи постов: по одному на запрос против /api/posts/bulk.
+#
+# Запуск (приложение поднято на локальном PostgreSQL, не на общем сервере):
+#   ./gradlew bootRun --args='--app.rate-limit.enabled=false'
+#   BASE=http://localhost:8080 USER=bench PASS=secret1 N=5000 bench/bulk-insert-benchmark.sh
+#
+# Ограничитель частоты нужно выключить: группа writes пропускает 120 POST в минуту,
+# и одиночный прогон упрётся в 429 задолго до N запросов. Скрипт проверяет это по метрике
+# ограничителя на порту management (MGMT) и не запускается, если ограничитель включён.
+# Пользователь USER должен существовать. Для честного сравнения выключите
+# spring.jpa.show-sql — построчный лог SQL сам по себе съедает большую часть времени.
+# Скрипт печатает время и постов в секунду для обоих вариантов.
+#
+# Замер (1 vCPU, PostgreSQL 16 на той же машине, N=5000, свежая БД, четвёртый прогон подряд —
+# первые идут на непрогретом JIT и вдвое-втрое медленнее): по одному — ~500 постов/с,
+# /bulk — ~5500–6200 постов/с. С reWriteBatchedInserts и без него разница на локальной БД
+# в пределах шума (6157 и 5543 постов/с): опция сокращает число обменов с сервером,
+# и её выигрыш виден при сетевой задержке до БД, а не на loopback.
+
+set -euo pipefail
+
+BASE=${BASE:-http://localhost:8080}
+USER=${USER:-bench}
+PASS=${PASS:-secret1}
+N=${N:-5000}
+MGMT=${MGMT:-http://localhost:8081}
+
+if ! curl -sf -o /dev/null "$MGMT/actuator/health"; then
+    echo "Порт management недоступен ($MGMT): не проверить, выключен ли ограничитель частоты" >&2
+    exit 1
+fi
+# метрика http.server.requests.rate_limited есть, только когда ограничитель включён
+if curl -sf -o /dev/null "$MGMT/actuator/metrics/http.server.requests.rate_limited"; then
+    echo "Ограничитель частоты включён: перезапустите приложение с --app.rate-limit.enabled=false" >&2
+    exit 1
+fi
+
+TOKEN=$(curl -sf -H 'Content-Type: application/json' \
+    -d "{\"username\":\"$USER\",\"password\":\"$PASS\"}" \
+    "$BASE/api/auth/login" | sed -E 's/.*"token":"([^"]+)".*/\1/')
+AUTH="Authorization: Bearer $TOKEN"
+
+now_ms() { date +%s%3N; }
+report() { echo "$1: $N постов за $2 мс, $(( N * 1000 / ($2 > 0 ? $2 : 1) )) постов/с"; }
+
+# 1. По одному посту на HTTP-запрос (keep-alive, последовательно)
+BODIES=$(mktemp)
+trap 'rm -f "$BODIES"' EXIT
+# один процесс curl и одно соединение на все запросы; опции каждого запроса отделены "next"
+for i in $(seq 1 "$N"); do
+    [ "$i" -gt 1 ] && printf 'next\n'
+    printf 'url = "%s/api/posts/create"\nheader = "%s"\nheader = "Content-Type: application/json"\n' "$BASE" "$AUTH"
+    printf 'data = "{\\"title\\":\\"single %d\\",\\"content\\":\\"benchmark\\"}"\noutput = "/dev/null"\n' "$i"
+done > "$BODIES"
+
+start=$(now_ms)
+curl -sf --config "$BODIES"
+report "single" $(( $(now_ms) - start ))
+
+# 2. Один запрос с массивом из N постов
+for i in $(seq 1 "$N"); do
+    printf '%s{"title":"bulk %d","content":"benchmark"}' "$([ "$i" -gt 1 ] && echo ,)" "$i"
+done | { printf '['; cat; printf ']'; } > "$BODIES"
+
+start=$(now_ms)
+curl -sf -o /dev/null -H "$AUTH" -H 'Content-Type: application/json' --data-binary @"$BODIES" "$BASE/api/posts/bulk"
+report "bulk" $(( $(now_ms) - start ))
@@ -0,0 +1,95 @@
+-- Бенчмарк поиска по постам: полный просмотр против tsvector + GIN.
+--
+-- Запуск (на локальном PostgreSQL, не на общем сервере):
+--   psql -d <db> -v rows=200000 -f bench/search-benchmark.sql
+--
+-- Скрипт создаёт отдельную схему search_bench, наполняет её синтетическими постами,
+-- сравнивает план и время трёх вариантов и удаляет схему в конце.
+
+\set ON_ERROR_STOP on
+\if :{?rows}
+\else
+    \set rows 200000
+\endif
+\timing on
+
+DROP SCHEMA IF EXISTS search_bench CASCADE;
+CREATE SCHEMA search_bench;
+SET search_path = search_bench;
+
+CREATE TABLE posts (
+    id           uuid PRIMARY KEY,
+    author_id    uuid NOT NULL,
+    title        varchar(255) NOT NULL,
+    content      text NOT NULL,
+    created_date timestamp,
+    deleted_date timestamp
+);
+
+-- Словарь из смеси русских и английских слов, чтобы работали оба стеммера конфигурации russian
+CREATE TEMP TABLE words AS
+SELECT w, row_number() OVER () AS n
+FROM unnest(string_to_array(
+    'база данных индекс запрос сервер клиент комментарий пост блог поиск страница ' ||
+    'пользователь кэш транзакция реплика нагрузка задержка память поток очередь ' ||
+    'postgres index query latency cache thread queue replica kafka spring hibernate ' ||
+    'java react frontend backend deploy release metric trace profile benchmark', ' ')) AS w;
+
+INSERT INTO posts (id, author_id, title, content, created_date, deleted_date)
+SELECT gen_random_uuid(),
+       gen_random_uuid(),
+       (SELECT string_agg(w, ' ') FROM (SELECT w FROM words ORDER BY random() + g * 0 LIMIT 5) t),
+       (SELECT string_agg(w, ' ') FROM (SELECT w FROM words, generate_series(1, 8) ORDER BY random() + g * 0 LIMIT 150) t),
+       now() - g * interval '1 minute',
+       CASE WHEN g % 20 = 0 THEN now() END
+FROM generate_series(1, :rows) AS g;
+
+-- Редкое слово в 0.1% постов — типичный избирательный запрос
+UPDATE posts SET content = content || ' шардирование' WHERE random() < 0.001;
+
+ALTER TABLE posts ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('russian'::regconfig, coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('russian'::regconfig, coalesce(content, '')), 'B')
+    ) STORED;
+CREATE INDEX idx_posts_search_vector ON posts USING GIN (search_vector);
+VACUUM ANALYZE posts;
+
+-- 1. Текущий подход: клиент забирает все посты (GET /api/posts) и фильтрует сам
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, title, content, created_date, author_id FROM posts;
+
+-- 2. Серверный полный просмотр подстрокой — лучшее, что можно сделать без индекса
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, title, created_date, author_id
+FROM posts
+WHERE deleted_date IS NULL AND (title ILIKE '%шардирование%' OR content ILIKE '%шардирование%')
+ORDER BY created_date DESC
+LIMIT 20;
+
+-- 3. Новый подход: тот же запрос, что PostRepository.search
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT h.id, h.title,
+       ts_headline('russian', h.content, h.query,
+                   'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=30, MinWords=10') AS snippet,
+       h.rank, h.created_date, h.author_id
+FROM (
+    SELECT p.id, p.title, p.content, p.created_date, p.author_id, q.query,
+           ts_rank(p.search_vector, q.query) AS rank
+    FROM posts p, websearch_to_tsquery('russian', 'шардирование') AS q(query)
+    WHERE p.deleted_date IS NULL AND p.search_vector @@ q.query
+    ORDER BY rank DESC, p.id
+    LIMIT 21 OFFSET 0
+) h
+ORDER BY h.rank DESC, h.id;
+
+-- 4. Частое слово: ранжирование по многим совпадениям — худший случай для GIN
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id, ts_rank(p.search_vector, q.query) AS rank
+FROM posts p, websearch_to_tsquery('russian', 'индекс') AS q(query)
+WHERE p.deleted_date IS NULL AND p.search_vector @@ q.query
+ORDER BY rank DESC, p.id
+LIMIT 21;
+
+RESET search_path;
+DROP SCHEMA search_bench CASCADE;
@@ -0,0 +1,52 @@
+package org.example.backend.jmh;
+
+import org.example.backend.dto.PostResponse;
+import org.example.backend.dto.UnuversalOkResponce;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сборка конверта ответа {@link UnuversalOkResponce} — она выполняется в каждом запросе.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EnvelopeBenchmark {
+
+    private List<PostResponse> page;
+
+    @Setup
+    public void setUp() {
+        page = Fixtures.postResponses(20);
+    }
+
+    @Benchmark
+    public UnuversalOkResponce<List<PostResponse>> okResponse() {
+        return UnuversalOkResponce.ok(page, "Список постов получен");
+    }
+
+    @Benchmark
+    public UnuversalOkResponce<List<PostResponse>> okResponseWithCursor() {
+        return UnuversalOkResponce.ok(page, "Список постов получен")
+                .with("nextCursor", "MjAyNS0wNi0wMVQxMjowMHwx");
+    }
+
+    @Benchmark
+    public UnuversalOkResponce<PostResponse> createdResponse() {
+        return UnuversalOkResponce.of(HttpStatus.CREATED, page.get(0), "Пост создан");
+    }
+
+    @Benchmark
+    public UnuversalOkResponce<Void> errorResponse() {
+        return UnuversalOkResponce.error(HttpStatus.NOT_FOUND, "Post not found");
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.backend.jmh;
+
+import org.example.backend.dto.PostResponse;
+import org.example.backend.dto.UserRequestDto;
+import org.example.backend.model.Comment;
+import org.example.backend.model.Gender;
+import org.example.backend.model.Post;
+import org.example.backend.model.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Типичные данные для бенчмарков: размеры полей близки к реальным постам и комментариям.
+ */
+final class Fixtures {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0, 0, 123_456_000);
+
+    private Fixtures() {}
+
+    static User user() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("ivan_petrov");
+        user.setEmail("ivan.petrov@example.org");
+        user.setPasswordHash("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z8r0i0Lx1Cz0NRIdGd0bN0Ce");
+        user.setBio("Пишу о бэкенде, базах данных и производительности.");
+        user.setAvatarUrl("https://cdn.example.org/avatars/ivan.png");
+        user.setBirthDate(LocalDate.of(1990, 4, 12));
+        user.setGender(Gender.MALE);
+        user.setCreatedAt(NOW);
+        user.setUpdatedAt(NOW);
+        return user;
+    }
+
+    static Post post(User author) {
+        Post post = new Post();
+        post.setId(UUID.randomUUID());
+        post.setAuthor(author);
+        post.setTitle("Как мы ускорили ленту постов в десять раз");
+        post.setContent("Keyset-пагинация, проекции и кэш второго уровня. ".repeat(40));
+        post.setCreatedDate(NOW);
+        post.setUpdatedDate(NOW);
+        post.setCommentCount(42);
+        post.setLastCommentAt(NOW);
+        return post;
+    }
+
+    static Comment comment(Post post, User author, Comment parent) {
+        Comment comment = new Comment();
+        comment.setId(UUID.randomUUID());
+        comment.setPost(post);
+        comment.setCreatedBy(author);
+        comment.setContent("Спасибо, полезно! А как вы мерили задержки под нагрузкой?");
+        comment.setCreatedDate(NOW);
+        comment.setEditedDate(NOW);
+        comment.setParentComment(parent);
+        comment.setReplyCount(3);
+        return comment;
+    }
+
+    static UserRequestDto userRequest(boolean withPassword) {
+        UserRequestDto dto = new UserRequestDto();
+        dto.setUsername("ivan_petrov");
+        dto.setEmail("ivan.petrov@example.org");
+        dto.setPassword(withPassword ? "correct-horse-battery" : null);
+        dto.setBio("Пишу о бэкенде, базах данных и производительности.");
+        dto.setAvatarUrl("https://cdn.example.org/avatars/ivan.png");
+        dto.setBirthDate(LocalDate.of(1990, 4, 12));
+        dto.setGender("MALE");
+        return dto;
+    }
+
+    static List<PostResponse> postResponses(int size) {
+        User author = user();
+        List<PostResponse> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Post post = post(author);
+            list.add(new PostResponse(post.getId(), post.getTitle(), post.getContent(), post.getCreatedDate(),
+                    post.getUpdatedDate(), author.getId(), post.getCommentCount(), post.getLastCommentAt()));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.backend.jmh;
+
+import org.example.backend.dto.CommentResponse;
+import org.example.backend.dto.PostResponse;
+import org.example.backend.dto.UserRequestDto;
+import org.example.backend.dto.UserResponseDto;
+import org.example.backend.mapper.CommentMapper;
+import org.example.backend.mapper.PostMapper;
+import org.example.backend.mapper.UserMapper;
+import org.example.backend.model.Comment;
+import org.example.backend.model.Post;
+import org.example.backend.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Маппинг сущность ↔ DTO. {@code userToEntity} включает BCrypt из {@code copyIntoEntity}
+ * и поэтому меряется отдельно от варианта без пароля (PATCH без смены пароля).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+    private final PostMapper postMapper = new PostMapper();
+    private final CommentMapper commentMapper = new CommentMapper();
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+
+    private User user;
+    private Post post;
+    private Comment comment;
+    private UserRequestDto requestWithPassword;
+    private UserRequestDto requestWithoutPassword;
+
+    @Setup
+    public void setUp() {
+        user = Fixtures.user();
+        post = Fixtures.post(user);
+        comment = Fixtures.comment(post, user, Fixtures.comment(post, user, null));
+        requestWithPassword = Fixtures.userRequest(true);
+        requestWithoutPassword = Fixtures.userRequest(false);
+    }
+
+    @Benchmark
+    public PostResponse postToDto() {
+        return postMapper.toDto(post);
+    }
+
+    @Benchmark
+    public CommentResponse commentToDto() {
+        return commentMapper.toDto(comment);
+    }
+
+    @Benchmark
+    public UserResponseDto userToDto() {
+        return UserMapper.toDto(user);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public User userToEntity() {
+        return UserMapper.toEntity(requestWithPassword, passwordEncoder);
+    }
+
+    @Benchmark
+    public User userPatchWithoutPassword() {
+        User target = new User();
+        UserMapper.patch(target, requestWithoutPassword, passwordEncoder);
+        return target;
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.backend.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.backend.config.JacksonConfig;
+import org.example.backend.dto.PostResponse;
+import org.example.backend.dto.UnuversalOkResponce;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация списка постов в конверте ответа — то, что делает {@code MappingJackson2HttpMessageConverter}.
+ * ObjectMapper собран тем же билдером, что и в Spring Boot (java.time как ISO-строки),
+ * с тем же фильтром полей поста, что регистрирует {@link JacksonConfig}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private UnuversalOkResponce<List<PostResponse>> envelope;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        JacksonConfig.POST_FIELDS.customize(builder);
+        objectMapper = builder.build();
+        List<PostResponse> posts = Fixtures.postResponses(size);
+        envelope = UnuversalOkResponce.ok(posts, "Список постов получен").with("nextCursor", null);
+    }
+
+    @Benchmark
+    public byte[] serializeEnvelope() throws Exception {
+        return objectMapper.writeValueAsBytes(envelope);
+    }
+}
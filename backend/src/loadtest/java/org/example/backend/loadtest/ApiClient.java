@@ -0,0 +1,86 @@
+package org.example.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Тонкий HTTP-клиент к приложению: JSON туда и обратно, Bearer-токен, метка сценария.
+ */
+final class ApiClient {
+
+    /** Ответ: код статуса и тело (разбирается, только если попросили). */
+    record Response(int status, JsonNode body) {
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http;
+    private final String baseUrl;
+
+    ApiClient(String baseUrl, int maxConcurrency) {
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(Math.max(4, Math.min(maxConcurrency, 64))))
+                .build();
+    }
+
+    ObjectMapper json() {
+        return objectMapper;
+    }
+
+    /**
+     * Выполнить запрос.
+     *
+     * @param method   HTTP-метод
+     * @param path     путь от корня приложения
+     * @param token    Bearer-токен или {@code null}
+     * @param body     тело (сериализуется в JSON) или {@code null}
+     * @param scenario метка сценария для подсчёта SQL или {@code null}
+     * @param parse    разобрать тело ответа
+     */
+    Response send(String method, String path, String token, Object body, String scenario, boolean parse)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (scenario != null) {
+            request.header(SqlCountingFilter.SCENARIO_HEADER, scenario);
+        }
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        if (!parse) {
+            HttpResponse<Void> response = http.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            return new Response(response.statusCode(), null);
+        }
+        HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        JsonNode json = response.body().length == 0 ? null : objectMapper.readTree(response.body());
+        return new Response(response.statusCode(), json);
+    }
+
+    /** Запрос, который обязан пройти (наполнение данными); тело ответа разбирается. */
+    JsonNode require(String method, String path, String token, Object body) throws IOException, InterruptedException {
+        Response response = send(method, path, token, body, null, true);
+        if (!response.ok()) {
+            throw new IllegalStateException(method + " " + path + " -> " + response.status() + " " + response.body());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,183 @@
+package org.example.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.backend.pagination.Cursor;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Планы keyset-запросов на глубокой странице: {@code ./gradlew keysetPlans}.
+ * <p>
+ * Наполняет пустую БД (встроенную или {@code -Ploadtest.jdbcUrl}) постами и комментариями с равномерно растущим {@code created_date},
+ * затем выполняет {@code EXPLAIN (ANALYZE, BUFFERS)} для первой страницы и для страницы {@value #DEEP_PAGE}.
+ * Курсор глубокой страницы — последняя строка предыдущей, как его выдал бы API.
+ * Правильный keyset читает на любой странице одинаково: те же буферы, ноль строк, отброшенных фильтром.
+ * <p>
+ * Тексты запросов повторяют SQL, который Hibernate строит из условий репозиториев; курсор подставляется литералами.
+ */
+public final class KeysetPlans {
+
+    private static final int POSTS = 200_000;
+    private static final int USERS = 100;
+    /** Комментарии верхнего уровня под постом {@code Post 1} и ответы на первый из них. */
+    private static final int COMMENTS = 50_000;
+    private static final int REPLIES = 30_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = 1000;
+
+    /**
+     * Запрос страницы: {@code {date}}, {@code {id}} — курсор, {@code {limit}} — сколько строк читать,
+     * {@code {post}}, {@code {parent}} — ветка комментариев из {@link Seeded}.
+     * Первые две колонки результата — ключ курсора; {@code first} — курсор первой страницы в порядке запроса.
+     */
+    private record Query(String name, Cursor first, String sql) {
+
+        String render(Seeded seeded, Cursor cursor, int limit) {
+            return sql.replace("{date}", "'" + cursor.createdDate() + "'::timestamp")
+                    .replace("{id}", "'" + cursor.id() + "'::uuid")
+                    .replace("{post}", "'" + seeded.post() + "'::uuid")
+                    .replace("{parent}", "'" + seeded.parent() + "'::uuid")
+                    .replace("{limit}", String.valueOf(limit));
+        }
+    }
+
+    /** Пост с длинной веткой комментариев и комментарий с длинной цепочкой ответов. */
+    private record Seeded(UUID post, UUID parent) {}
+
+    private record Measured(String query, int page, long buffers, long removedByFilter, double millis, String indexes) {}
+
+    private static final List<Query> QUERIES = List.of(
+            new Query("posts", Cursor.FIRST,
+                    "SELECT p.created_date, p.id, p.title, p.excerpt, p.author_id FROM posts p"
+                            + " WHERE (p.created_date, p.id) < ({date}, {id})"
+                            + " ORDER BY p.created_date DESC, p.id DESC LIMIT {limit}"),
+            // прежнее условие — для сравнения
+            new Query("posts (OR)", Cursor.FIRST,
+                    "SELECT p.created_date, p.id, p.title, p.excerpt, p.author_id FROM posts p"
+                            + " WHERE (p.created_date < {date} OR (p.created_date = {date} AND p.id < {id}))"
+                            + " ORDER BY p.created_date DESC, p.id DESC LIMIT {limit}"),
+            new Query("author posts", Cursor.FIRST,
+                    "SELECT p.created_date, p.id, p.title, p.excerpt, p.author_id FROM posts p"
+                            + " JOIN users a ON a.id = p.author_id"
+                            + " WHERE p.deleted_date IS NULL AND a.username = 'user1'"
+                            + " AND (p.created_date, p.id) < ({date}, {id})"
+                            + " ORDER BY p.created_date DESC, p.id DESC LIMIT {limit}"),
+            new Query("comment thread", Cursor.FIRST_ASCENDING,
+                    "SELECT c.created_date, c.id, c.content, c.reply_count FROM comments c"
+                            + " WHERE c.post_id = {post} AND c.parent_comment_id IS NULL"
+                            + " AND (c.created_date, c.id) > ({date}, {id})"
+                            + " ORDER BY c.created_date, c.id LIMIT {limit}"),
+            new Query("comment replies", Cursor.FIRST_ASCENDING,
+                    "SELECT c.created_date, c.id, c.content, c.reply_count FROM comments c"
+                            + " WHERE c.post_id = {post} AND c.parent_comment_id = {parent}"
+                            + " AND (c.created_date, c.id) > ({date}, {id})"
+                            + " ORDER BY c.created_date, c.id LIMIT {limit}"));
+
+    private KeysetPlans() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        ObjectMapper json = new ObjectMapper();
+        List<Measured> results = new ArrayList<>();
+        try (LocalDatabase database = LocalDatabase.start(settings)) {
+            database.migrate();
+            try (Connection connection = DriverManager.getConnection(database.url(), database.user(), database.password());
+                 Statement statement = connection.createStatement()) {
+                Seeded seeded = seed(statement);
+                for (Query query : QUERIES) {
+                    results.add(explain(statement, json, seeded, query, 1, query.first()));
+                    results.add(explain(statement, json, seeded, query, DEEP_PAGE, deepCursor(statement, seeded, query)));
+                }
+            }
+        }
+        System.out.printf("%n%-16s %6s %9s %12s %9s  %s%n", "query", "page", "buffers", "filtered out", "ms", "indexes");
+        for (Measured row : results) {
+            System.out.printf("%-16s %6d %9d %12d %9.3f  %s%n",
+                    row.query(), row.page(), row.buffers(), row.removedByFilter(), row.millis(), row.indexes());
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Половина постов — у одного автора ({@code user1}), каждый сотый удалён.
+     * Под {@code Post 1} — длинная ветка комментариев, у её первого комментария — длинная цепочка ответов.
+     */
+    private static Seeded seed(Statement statement) throws Exception {
+        statement.execute("INSERT INTO users (id, email, password_hash, username)"
+                + " SELECT gen_random_uuid(), 'user' || g || '@example.org', 'x', 'user' || g"
+                + " FROM generate_series(1, " + USERS + ") g");
+        statement.execute("CREATE TEMP TABLE seed_authors AS SELECT row_number() OVER (ORDER BY username) - 1 AS n, id FROM users");
+        statement.execute("INSERT INTO posts (id, title, content, created_date, deleted_date, author_id)"
+                + " SELECT gen_random_uuid(), 'Post ' || g, repeat('text ', 40),"
+                + " timestamp '2024-01-01' + g * interval '1 second',"
+                + " CASE WHEN g % 100 = 0 THEN timestamp '2025-01-01' END,"
+                + " (SELECT id FROM seed_authors WHERE n = CASE WHEN g % 2 = 0 THEN 0 ELSE g % " + USERS + " END)"
+                + " FROM generate_series(1, " + POSTS + ") g");
+        statement.execute("INSERT INTO comments (id, content, created_date, edited_date, created_by, post_id)"
+                + " SELECT gen_random_uuid(), 'Comment ' || g, timestamp '2024-06-01' + g * interval '1 second',"
+                + " timestamp '2024-06-01' + g * interval '1 second', p.author_id, p.id"
+                + " FROM generate_series(1, " + COMMENTS + ") g, posts p WHERE p.title = 'Post 1'");
+        statement.execute("INSERT INTO comments (id, content, created_date, edited_date, created_by, post_id, parent_comment_id)"
+                + " SELECT gen_random_uuid(), 'Reply ' || g, timestamp '2024-07-01' + g * interval '1 second',"
+                + " timestamp '2024-07-01' + g * interval '1 second', parent.created_by, parent.post_id, parent.id"
+                + " FROM generate_series(1, " + REPLIES + ") g, comments parent WHERE parent.content = 'Comment 1'");
+        statement.execute("ANALYZE users");
+        statement.execute("ANALYZE posts");
+        statement.execute("ANALYZE comments");
+        try (ResultSet row = statement.executeQuery("SELECT post_id, id FROM comments WHERE content = 'Comment 1'")) {
+            row.next();
+            return new Seeded(row.getObject(1, UUID.class), row.getObject(2, UUID.class));
+        }
+    }
+
+    /** Курсор страницы {@value #DEEP_PAGE}: ключ последней строки предыдущих страниц. */
+    private static Cursor deepCursor(Statement statement, Seeded seeded, Query query) throws Exception {
+        Cursor last = null;
+        try (ResultSet rows = statement.executeQuery(query.render(seeded, query.first(), (DEEP_PAGE - 1) * PAGE_SIZE))) {
+            while (rows.next()) {
+                last = new Cursor(rows.getObject(1, LocalDateTime.class), rows.getObject(2, UUID.class));
+            }
+        }
+        return last;
+    }
+
+    private static Measured explain(Statement statement, ObjectMapper json, Seeded seeded, Query query, int page,
+                                    Cursor cursor) throws Exception {
+        String sql = "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + query.render(seeded, cursor, PAGE_SIZE + 1);
+        // первый прогон прогревает кэш: сравниваются прочитанные страницы, а не холодный диск
+        statement.executeQuery(sql).close();
+        try (ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            JsonNode root = json.readTree(result.getString(1)).get(0);
+            JsonNode plan = root.get("Plan");
+            TreeSet<String> indexes = new TreeSet<>();
+            long removed = walk(plan, indexes);
+            long buffers = plan.path("Shared Hit Blocks").asLong() + plan.path("Shared Read Blocks").asLong();
+            return new Measured(query.name(), page, buffers, removed,
+                    root.path("Execution Time").asDouble(), String.join(", ", indexes));
+        }
+    }
+
+    /** Строки, отброшенные фильтрами по всему дереву плана; заодно собирает имена индексов. */
+    private static long walk(JsonNode node, TreeSet<String> indexes) {
+        if (node.has("Index Name")) {
+            indexes.add(node.get("Index Name").asText());
+        }
+        long removed = (node.path("Rows Removed by Filter").asLong() + node.path("Rows Removed by Join Filter").asLong())
+                * Math.max(1, node.path("Actual Loops").asLong());
+        for (JsonNode child : node.path("Plans")) {
+            removed += walk(child, indexes);
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.backend.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * «Медленная БД» без root и {@code tc netem}: TCP-прокси перед PostgreSQL, который задерживает каждый пакет
+ * на половину {@code loadtest.dbLatency} в каждую сторону — к каждому обмену с БД добавляется заданный RTT.
+ * <p>
+ * Нужен для сравнения платформенных и виртуальных потоков: на локальной БД запрос почти не ждёт ввода-вывода,
+ * и разница между моделями потоков не видна.
+ */
+final class LatencyProxy implements AutoCloseable {
+
+    private static final Pattern HOST_PORT = Pattern.compile("//([^/:?]+):(\\d+)");
+
+    private final ServerSocket server;
+    private final String host;
+    private final int port;
+    private final long delayNanos;
+
+    private LatencyProxy(String host, int port, Duration roundTrip) throws IOException {
+        this.server = new ServerSocket(0, 1000, InetAddress.getLoopbackAddress());
+        this.host = host;
+        this.port = port;
+        this.delayNanos = roundTrip.toNanos() / 2;
+        Thread acceptor = new Thread(this::accept, "latency-proxy-" + port);
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Поднять прокси перед БД из JDBC URL.
+     *
+     * @return прокси или {@code null}, если задержка не задана
+     */
+    static LatencyProxy start(String jdbcUrl, Duration roundTrip) throws IOException {
+        if (jdbcUrl == null || roundTrip.isZero() || roundTrip.isNegative()) {
+            return null;
+        }
+        Matcher matcher = HOST_PORT.matcher(jdbcUrl);
+        if (!matcher.find()) {
+            throw new IllegalArgumentException("В JDBC URL нет host:port: " + jdbcUrl);
+        }
+        return new LatencyProxy(matcher.group(1), Integer.parseInt(matcher.group(2)), roundTrip);
+    }
+
+    /** Тот же JDBC URL, но через прокси. */
+    String url(String jdbcUrl) {
+        return HOST_PORT.matcher(jdbcUrl).replaceFirst("//127.0.0.1:" + server.getLocalPort());
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket client = server.accept();
+                Socket backend = new Socket(host, port);
+                client.setTcpNoDelay(true);
+                backend.setTcpNoDelay(true);
+                pump(client, backend);
+                pump(backend, client);
+            } catch (IOException e) {
+                // прокси закрыт или БД недоступна — клиент увидит обрыв соединения
+            }
+        }
+    }
+
+    private void pump(Socket from, Socket to) {
+        Thread thread = new Thread(() -> {
+            byte[] buffer = new byte[64 * 1024];
+            try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    TimeUnit.NANOSECONDS.sleep(delayNanos);
+                    out.write(buffer, 0, read);
+                    out.flush();
+                }
+            } catch (IOException | InterruptedException e) {
+                // соединение закрыто с одной из сторон
+            } finally {
+                closeQuietly(from);
+                closeQuietly(to);
+            }
+        }, "latency-proxy-pump");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // уже закрыт
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.example.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор нагрузки.
+ * <p>
+ * Замкнутая модель: {@code concurrency} клиентов, каждый шлёт следующий запрос после ответа на предыдущий
+ * (и паузы {@code thinkTime}) — пропускная способность ограничена временем ответа.
+ * Открытая модель: запросы приходят пуассоновским потоком с частотой {@code rate} независимо от ответов,
+ * задержка считается от запланированного момента отправки — время в очереди клиента тоже входит
+ * в перцентили (без coordinated omission).
+ */
+final class LoadDriver {
+
+    /** Итоги по сценарию за фазу измерения. */
+    static final class ScenarioStats {
+        final Histogram latencyMicros = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        final LongAdder errors = new LongAdder();
+    }
+
+    private final ApiClient api;
+    private final LoadTestSettings settings;
+    private final Seeder.Dataset dataset;
+    private final Scenario[] wheel;
+    /** Свои комментарии каждого пользователя — кандидаты на правку и удаление. */
+    private final List<ConcurrentLinkedDeque<String>> ownComments;
+    private final Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+    private volatile boolean measuring;
+
+    LoadDriver(ApiClient api, LoadTestSettings settings, Seeder.Dataset dataset) {
+        this.api = api;
+        this.settings = settings;
+        this.dataset = dataset;
+        List<Scenario> wheel = new ArrayList<>();
+        settings.mix().forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                wheel.add(scenario);
+            }
+        });
+        if (wheel.isEmpty()) {
+            throw new IllegalArgumentException("Все веса сценариев нулевые");
+        }
+        this.wheel = wheel.toArray(Scenario[]::new);
+        this.ownComments = new ArrayList<>(dataset.tokens().size());
+        for (int i = 0; i < dataset.tokens().size(); i++) {
+            ownComments.add(new ConcurrentLinkedDeque<>());
+        }
+        for (Scenario scenario : Scenario.values()) {
+            stats.put(scenario, new ScenarioStats());
+        }
+    }
+
+    Map<Scenario, ScenarioStats> stats() {
+        return stats;
+    }
+
+    /**
+     * Прогрев, затем измерение.
+     *
+     * @param onMeasureStart вызывается на границе прогрева и измерения (сброс серверных счётчиков)
+     */
+    void run(Runnable onMeasureStart) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+        if (settings.model() == LoadTestSettings.Model.CLOSED) {
+            runClosed(measureFrom, end, onMeasureStart);
+        } else {
+            runOpen(measureFrom, end, onMeasureStart);
+        }
+    }
+
+    private void runClosed(long measureFrom, long end, Runnable onMeasureStart) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency());
+        long thinkNanos = settings.thinkTime().toNanos();
+        for (int i = 0; i < settings.concurrency(); i++) {
+            workers.execute(() -> {
+                while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                    execute(System.nanoTime());
+                    if (thinkNanos > 0) {
+                        LockSupport.parkNanos(thinkNanos);
+                    }
+                }
+            });
+        }
+        awaitMeasureStart(measureFrom, onMeasureStart);
+        workers.shutdown();
+        workers.awaitTermination(end - System.nanoTime() + TimeUnit.SECONDS.toNanos(60), TimeUnit.NANOSECONDS);
+        workers.shutdownNow();
+    }
+
+    private void runOpen(long measureFrom, long end, Runnable onMeasureStart) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency());
+        Thread arrivals = new Thread(() -> {
+            double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+            long next = System.nanoTime();
+            while (next < end) {
+                long intended = next;
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                workers.execute(() -> execute(intended));
+                next += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanGapNanos);
+            }
+        }, "loadtest-arrivals");
+        arrivals.start();
+        awaitMeasureStart(measureFrom, onMeasureStart);
+        arrivals.join();
+        workers.shutdown();
+        workers.awaitTermination(60, TimeUnit.SECONDS);
+        workers.shutdownNow();
+    }
+
+    private void awaitMeasureStart(long measureFrom, Runnable onMeasureStart) {
+        long wait;
+        while ((wait = measureFrom - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+        onMeasureStart.run();
+        measuring = true;
+    }
+
+    /** Один запрос случайного сценария; {@code intendedStart} — момент, с которого считается задержка. */
+    private void execute(long intendedStart) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Scenario scenario = wheel[random.nextInt(wheel.length)];
+        int user = random.nextInt(dataset.tokens().size());
+        String token = dataset.tokens().get(user);
+        ConcurrentLinkedDeque<String> mine = ownComments.get(user);
+
+        // править и удалять можно только свои комментарии; пока их нет — пишем новый
+        String commentId = null;
+        if (scenario == Scenario.EDIT_COMMENT) {
+            commentId = mine.peekLast();
+        } else if (scenario == Scenario.DELETE_COMMENT) {
+            commentId = mine.pollFirst();
+        }
+        if ((scenario == Scenario.EDIT_COMMENT || scenario == Scenario.DELETE_COMMENT) && commentId == null) {
+            scenario = Scenario.COMMENT;
+        }
+
+        boolean ok;
+        try {
+            ApiClient.Response response = switch (scenario) {
+                // чтения — анонимные, как основная часть трафика ленты; с токеном пишущего пользователя
+                // они попадали бы в окно read-your-writes и никогда не доходили бы до реплики
+                case LIST_POSTS -> api.send("GET", "/api/posts?size=20", null, null, scenario.key(), false);
+                case OPEN_THREAD -> api.send("GET", "/api/comments/post/" + pickPost(random) + "/tree",
+                        null, null, scenario.key(), false);
+                case READ_POST -> api.send("GET", "/api/posts/" + pickPost(random), null, null, scenario.key(), false);
+                case COMMENT -> api.send("POST", "/api/comments/create", token,
+                        Map.of("postId", pickPost(random), "content", "Комментарий под нагрузкой " + random.nextInt()),
+                        scenario.key(), true);
+                case EDIT_COMMENT -> api.send("PUT", "/api/comments/update/" + commentId, token,
+                        Map.of("content", "Правка под нагрузкой " + random.nextInt()), scenario.key(), false);
+                case DELETE_COMMENT -> api.send("DELETE", "/api/comments/delete/" + commentId, token,
+                        null, scenario.key(), false);
+            };
+            ok = response.ok();
+            if (ok && scenario == Scenario.COMMENT) {
+                JsonNode id = response.body().path("data").path("id");
+                if (!id.isMissingNode()) {
+                    mine.addLast(id.asText());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            ok = false;
+        }
+
+        if (measuring) {
+            ScenarioStats target = stats.get(scenario);
+            long micros = (System.nanoTime() - intendedStart) / 1_000;
+            target.latencyMicros.recordValue(Math.min(micros, target.latencyMicros.getHighestTrackableValue()));
+            if (!ok) {
+                target.errors.increment();
+            }
+        }
+    }
+
+    /** Пост с перекосом: доля {@code hotPostShare} обращений приходится на первые 20% постов. */
+    private String pickPost(ThreadLocalRandom random) {
+        List<String> posts = dataset.postIds();
+        int hot = Math.max(1, posts.size() / 5);
+        int index = random.nextDouble() < settings.hotPostShare()
+                ? random.nextInt(hot)
+                : random.nextInt(posts.size());
+        return posts.get(index);
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Отчёт прогона: таблица в консоль и JSON-файл для сравнения прогонов между собой.
+ *
+ * @param settings  параметры прогона
+ * @param endpoints строки по сценариям
+ * @param routing   сколько соединений выдано основной БД и реплике (за весь прогон, с наполнением)
+ */
+record LoadReport(Map<String, Object> settings, List<EndpointRow> endpoints, Map<String, Double> routing) {
+
+    /**
+     * Строка отчёта по сценарию. Задержки в миллисекундах.
+     *
+     * @param sqlPerRequest среднее число SQL-операторов на запрос (по данным сервера)
+     */
+    record EndpointRow(String scenario, long requests, long errors, double throughput,
+                       double p50, double p95, double p99, double max, double sqlPerRequest) {}
+
+    static LoadReport build(LoadTestSettings settings, Map<Scenario, LoadDriver.ScenarioStats> stats,
+                            SqlCountingFilter sqlCounter, MeterRegistry registry) {
+        double seconds = settings.duration().toMillis() / 1000.0;
+        List<EndpointRow> rows = new ArrayList<>();
+        stats.forEach((scenario, s) -> {
+            Histogram h = s.latencyMicros;
+            rows.add(new EndpointRow(scenario.key(), h.getTotalCount(), s.errors.sum(), h.getTotalCount() / seconds,
+                    ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(95)), ms(h.getValueAtPercentile(99)),
+                    ms(h.getMaxValue()), sqlCounter.statementsPerRequest(scenario.key())));
+        });
+
+        Map<String, Object> described = new LinkedHashMap<>();
+        described.put("model", settings.model());
+        described.put("concurrency", settings.concurrency());
+        if (settings.model() == LoadTestSettings.Model.OPEN) {
+            described.put("rate", settings.rate());
+        } else {
+            described.put("thinkTime", settings.thinkTime().toString());
+        }
+        described.put("warmup", settings.warmup().toString());
+        described.put("duration", settings.duration().toString());
+        described.put("users", settings.users());
+        described.put("posts", settings.posts());
+        described.put("commentsPerPost", settings.commentsPerPost());
+        described.put("hotPostShare", settings.hotPostShare());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        settings.mix().forEach((scenario, weight) -> mix.put(scenario.key(), weight));
+        described.put("mix", mix);
+        described.put("replica", settings.replica());
+        described.put("threads", settings.threads());
+        described.put("dbLatency", settings.dbLatency().toString());
+        described.put("poolSize", settings.poolSize());
+        described.put("jdk", Runtime.version().toString());
+
+        Map<String, Double> routing = new LinkedHashMap<>();
+        registry.find("datasource.routing").counters()
+                .forEach(counter -> routing.put(counter.getId().getTag("target"), counter.count()));
+        return new LoadReport(described, rows, routing);
+    }
+
+    void print() {
+        System.out.printf("%n%-14s %9s %7s %9s %9s %9s %9s %9s %8s%n",
+                "scenario", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "sql/req");
+        for (EndpointRow row : endpoints) {
+            System.out.printf("%-14s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %8.2f%n",
+                    row.scenario(), row.requests(), row.errors(), row.throughput(),
+                    row.p50(), row.p95(), row.p99(), row.max(), row.sqlPerRequest());
+        }
+        if (!routing.isEmpty()) {
+            System.out.println("Connections by target: " + routing);
+        }
+    }
+
+    void write(java.nio.file.Path path, ObjectMapper objectMapper) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), this);
+        System.out.println("Report: " + path.toAbsolutePath());
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.backend.loadtest;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Бины, которые нагрузочный прогон добавляет к приложению.
+ */
+@Configuration
+class LoadTestConfig {
+
+    @Bean
+    SqlCountingFilter sqlCountingFilter() {
+        return new SqlCountingFilter();
+    }
+
+    /** Снаружи фильтра метрик SQL — к возврату из цепочки число операторов запроса уже известно. */
+    @Bean
+    FilterRegistrationBean<SqlCountingFilter> sqlCountingFilterRegistration(SqlCountingFilter filter) {
+        var registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
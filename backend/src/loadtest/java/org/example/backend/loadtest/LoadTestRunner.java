@@ -0,0 +1,92 @@
+package org.example.backend.loadtest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.backend.BackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Нагрузочный прогон на уровне эндпоинтов: {@code ./gradlew loadTest}.
+ * <p>
+ * Поднимает локальный PostgreSQL (с {@code -Ploadtest.replica=true} — ещё и реплику для чтения), запускает приложение на случайном порту против него,
+ * наполняет данными через API и гоняет смесь сценариев (лента, ветка, комментарий, правка, удаление).
+ * На выходе — пропускная способность, p50/p95/p99 и число SQL-операторов на запрос по каждому сценарию.
+ * Параметры — {@code -Ploadtest.*}, см. {@link LoadTestSettings}.
+ * <p>
+ * Платформенные потоки против виртуальных — один и тот же прогон с разным {@code loadtest.threads}
+ * на «медленной» БД (каждый обмен с ней задерживает {@link LatencyProxy}) и с одинаковым пулом соединений:
+ * <pre>
+ *   ./gradlew loadTest -Ploadtest.only=readPost -Ploadtest.concurrency=1000 -Ploadtest.dbLatency=PT0.02S -Ploadtest.poolSize=20
+ *   ./gradlew loadTest -Ploadtest.only=readPost -Ploadtest.concurrency=1000 -Ploadtest.dbLatency=PT0.02S -Ploadtest.poolSize=20 \
+ *       -Ploadtest.threads=virtual
+ * </pre>
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        if (settings.threads() == LoadTestSettings.Threads.VIRTUAL && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("loadtest.threads=virtual требует JDK 21+, а прогон запущен на JDK "
+                    + Runtime.version().feature());
+        }
+        try (LocalDatabase database = LocalDatabase.start(settings);
+             LatencyProxy primary = LatencyProxy.start(database.url(), settings.dbLatency());
+             LatencyProxy replica = LatencyProxy.start(database.replicaUrl(), settings.dbLatency());
+             ConfigurableApplicationContext app = startApplication(settings, database, primary, replica, args)) {
+            database.startReplication();
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            ApiClient api = new ApiClient("http://localhost:" + port, settings.concurrency());
+
+            Seeder.Dataset dataset = new Seeder(api, settings).seed();
+            SqlCountingFilter sqlCounter = app.getBean(SqlCountingFilter.class);
+
+            LoadDriver driver = new LoadDriver(api, settings, dataset);
+            System.out.printf("Running %s model on %s threads (JDK %s) for %s after %s warmup%n",
+                    settings.model(), settings.threads(), Runtime.version().feature(), settings.duration(), settings.warmup());
+            driver.run(sqlCounter::reset);
+
+            LoadReport report = LoadReport.build(settings, driver.stats(), sqlCounter, app.getBean(MeterRegistry.class));
+            report.print();
+            report.write(settings.report(), api.json());
+        }
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestSettings settings, LocalDatabase database,
+                                                                   LatencyProxy primary, LatencyProxy replica,
+                                                                   String[] args) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.url", primary == null ? database.url() : primary.url(database.url()));
+        properties.put("spring.datasource.username", database.user());
+        properties.put("spring.datasource.password", database.password());
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("management.server.port", 0);
+        // все виртуальные пользователи приходят с одного адреса; меряем БД, а не ограничитель частоты
+        properties.put("app.rate-limit.enabled", false);
+        if (database.replicaUrl() != null) {
+            properties.put("app.datasource.replica.url",
+                    replica == null ? database.replicaUrl() : replica.url(database.replicaUrl()));
+        }
+        if (settings.threads() == LoadTestSettings.Threads.VIRTUAL) {
+            properties.put("spring.profiles.active", "virtual");
+        }
+        if (settings.poolSize() > 0) {
+            properties.put("spring.datasource.hikari.maximum-pool-size", settings.poolSize());
+        }
+        // аргументами командной строки, а не default properties — иначе победит адрес из application.properties
+        List<String> arguments = new ArrayList<>(List.of(args));
+        properties.forEach((name, value) -> arguments.add("--" + name + "=" + value));
+        return new SpringApplicationBuilder(BackendApplication.class, LoadTestConfig.class)
+                .run(arguments.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.backend.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Параметры прогона. Читаются из системных свойств {@code loadtest.*}
+ * (Gradle пробрасывает их из {@code -Ploadtest.*}).
+ *
+ * @param jdbcUrl        внешняя БД; пусто — поднимается встроенный PostgreSQL
+ * @param jdbcUser       пользователь внешней БД
+ * @param jdbcPassword   пароль внешней БД
+ * @param replica        поднять вторую встроенную БД как реплику для чтения (логическая репликация)
+ * @param replicaJdbcUrl внешняя реплика (тот же пользователь, что у основной БД) вместо встроенной
+ * @param dbLatency      задержка каждого обмена с БД ({@link LatencyProxy}); ноль — без прокси
+ * @param threads        на каких потоках приложение обрабатывает запросы (виртуальные — профиль {@code virtual}, JDK 21+)
+ * @param poolSize       размер пула соединений приложения; 0 — как в настройках приложения (и профиля)
+ * @param users          сколько пользователей создать при наполнении
+ * @param posts          сколько постов создать
+ * @param commentsPerPost сколько комментариев на пост
+ * @param model          модель нагрузки: замкнутая (фиксированное число клиентов) или открытая (фиксированная частота)
+ * @param concurrency    число клиентов в замкнутой модели (и предел одновременных запросов в открытой)
+ * @param rate           запросов в секунду в открытой модели
+ * @param thinkTime      пауза клиента между запросами в замкнутой модели
+ * @param warmup         прогрев, в статистику не входит
+ * @param duration       длительность измерения
+ * @param hotPostShare   доля обращений к «горячим» 20% постов
+ * @param mix            веса сценариев; {@code loadtest.only=<key>} — только один сценарий
+ * @param report         куда записать JSON-отчёт
+ */
+record LoadTestSettings(String jdbcUrl, String jdbcUser, String jdbcPassword,
+                        boolean replica, String replicaJdbcUrl, Duration dbLatency, Threads threads,
+                        int poolSize,
+                        int users, int posts, int commentsPerPost,
+                        Model model, int concurrency, double rate, Duration thinkTime,
+                        Duration warmup, Duration duration, double hotPostShare,
+                        Map<Scenario, Integer> mix, Path report) {
+
+    enum Model { CLOSED, OPEN }
+
+    enum Threads { PLATFORM, VIRTUAL }
+
+    static LoadTestSettings fromSystemProperties() {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        String only = prop("only", "");
+        for (Scenario scenario : Scenario.values()) {
+            int weight = only.isEmpty() ? intProp("mix." + scenario.key(), scenario.defaultWeight())
+                    : scenario.key().equals(only) ? 1 : 0;
+            mix.put(scenario, weight);
+        }
+        return new LoadTestSettings(
+                prop("jdbcUrl", ""),
+                prop("jdbcUser", "postgres"),
+                prop("jdbcPassword", "postgres"),
+                Boolean.parseBoolean(prop("replica", "false")) || !prop("replicaJdbcUrl", "").isBlank(),
+                prop("replicaJdbcUrl", ""),
+                Duration.parse(prop("dbLatency", "PT0S")),
+                Threads.valueOf(prop("threads", "platform").toUpperCase()),
+                intProp("poolSize", 0),
+                intProp("users", 50),
+                intProp("posts", 2_000),
+                intProp("commentsPerPost", 20),
+                Model.valueOf(prop("model", "closed").toUpperCase()),
+                intProp("concurrency", 50),
+                Double.parseDouble(prop("rate", "200")),
+                Duration.parse(prop("thinkTime", "PT0S")),
+                Duration.parse(prop("warmup", "PT15S")),
+                Duration.parse(prop("duration", "PT60S")),
+                Double.parseDouble(prop("hotPostShare", "0.8")),
+                mix,
+                Path.of(prop("report", "build/reports/loadtest/loadtest-" + System.currentTimeMillis() + ".json")));
+    }
+
+    private static String prop(String name, String defaultValue) {
+        String value = System.getProperty("loadtest." + name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    private static int intProp(String name, int defaultValue) {
+        return Integer.parseInt(prop(name, String.valueOf(defaultValue)));
+    }
+}
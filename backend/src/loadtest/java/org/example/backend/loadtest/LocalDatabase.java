@@ -0,0 +1,151 @@
+package org.example.backend.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Локальная замена общего сервера БД: встроенный PostgreSQL (бинарники из Maven, во временном каталоге)
+ * или уже запущенный локальный экземпляр, если задан {@code loadtest.jdbcUrl}.
+ * Общий сервер не используется никогда — адрес задаётся здесь, а не из application.properties.
+ * <p>
+ * С {@code loadtest.replica=true} поднимается второй экземпляр — реплика для чтения. Физическую
+ * реплику из встроенных бинарников не собрать (нет pg_basebackup), поэтому она подписывается
+ * на таблицы основной БД логической репликацией; схему на ней создают те же миграции Flyway.
+ */
+final class LocalDatabase implements AutoCloseable {
+
+    private static final String PUBLICATION = "loadtest";
+
+    private final EmbeddedPostgres embedded;
+    private final EmbeddedPostgres embeddedReplica;
+    private final String url;
+    private final String replicaUrl;
+    private final String user;
+    private final String password;
+
+    private LocalDatabase(EmbeddedPostgres embedded, EmbeddedPostgres embeddedReplica,
+                          String url, String replicaUrl, String user, String password) {
+        this.embedded = embedded;
+        this.embeddedReplica = embeddedReplica;
+        this.url = url;
+        this.replicaUrl = replicaUrl;
+        this.user = user;
+        this.password = password;
+    }
+
+    static LocalDatabase start(LoadTestSettings settings) throws IOException, SQLException {
+        if (!settings.jdbcUrl().isBlank()) {
+            String replicaUrl = settings.replicaJdbcUrl().isBlank() ? null : settings.replicaJdbcUrl();
+            return new LocalDatabase(null, null, settings.jdbcUrl(), replicaUrl,
+                    settings.jdbcUser(), settings.jdbcPassword());
+        }
+        boolean embeddedReplica = settings.replica() && settings.replicaJdbcUrl().isBlank();
+        EmbeddedPostgres primary = startEmbedded(embeddedReplica);
+        if (!embeddedReplica) {
+            String replicaUrl = settings.replicaJdbcUrl().isBlank() ? null : settings.replicaJdbcUrl();
+            return new LocalDatabase(primary, null, urlOf(primary), replicaUrl, "postgres", "postgres");
+        }
+        EmbeddedPostgres replica = startEmbedded(false);
+        LocalDatabase database = new LocalDatabase(primary, replica, urlOf(primary), urlOf(replica),
+                "postgres", "postgres");
+        database.migrateReplica();
+        return database;
+    }
+
+    String url() {
+        return url;
+    }
+
+    /** JDBC URL реплики или {@code null}, если её нет. */
+    String replicaUrl() {
+        return replicaUrl;
+    }
+
+    String user() {
+        return user;
+    }
+
+    String password() {
+        return password;
+    }
+
+    /**
+     * Подписать встроенную реплику на основную БД. Вызывать после старта приложения:
+     * к этому моменту Flyway приложения создал таблицы в основной БД.
+     */
+    void startReplication() throws SQLException {
+        if (embeddedReplica == null) {
+            return;
+        }
+        try (Connection connection = DriverManager.getConnection(url, user, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE PUBLICATION " + PUBLICATION + " FOR TABLE blog.users, blog.posts, blog.comments");
+        }
+        try (Connection connection = DriverManager.getConnection(replicaUrl, user, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SUBSCRIPTION " + PUBLICATION
+                    + " CONNECTION 'host=localhost port=" + embedded.getPort() + " user=postgres dbname=postgres'"
+                    + " PUBLICATION " + PUBLICATION);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (embeddedReplica != null) {
+            try (Connection connection = DriverManager.getConnection(replicaUrl, user, password);
+                 Statement statement = connection.createStatement()) {
+                statement.execute("DROP SUBSCRIPTION IF EXISTS " + PUBLICATION);
+            } catch (SQLException e) {
+                // реплика всё равно удаляется вместе с каталогом
+            }
+            embeddedReplica.close();
+        }
+        if (embedded != null) {
+            embedded.close();
+        }
+    }
+
+    private static EmbeddedPostgres startEmbedded(boolean publisher) throws IOException, SQLException {
+        EmbeddedPostgres.Builder builder = EmbeddedPostgres.builder();
+        if (publisher) {
+            builder.setServerConfig("wal_level", "logical");
+        }
+        EmbeddedPostgres postgres = builder.start();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA IF NOT EXISTS blog");
+        }
+        return postgres;
+    }
+
+    private static String urlOf(EmbeddedPostgres postgres) {
+        return postgres.getJdbcUrl("postgres", "postgres") + "&currentSchema=blog&reWriteBatchedInserts=true";
+    }
+
+    /** Схема без запуска приложения — для прогонов, которые работают с БД напрямую. */
+    void migrate() {
+        migrate(url);
+    }
+
+    /** Та же схема, что в основной БД: миграции приложения. */
+    private void migrateReplica() {
+        migrate(replicaUrl);
+    }
+
+    private void migrate(String target) {
+        Flyway.configure()
+                .dataSource(target, user, password)
+                .schemas("blog")
+                .locations("classpath:db/migration")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.backend.loadtest;
+
+/**
+ * Сценарии смешанной нагрузки и их веса по умолчанию (примерно как в продакшене: в основном чтение).
+ */
+enum Scenario {
+    LIST_POSTS("listPosts", 50),
+    OPEN_THREAD("openThread", 30),
+    COMMENT("comment", 12),
+    EDIT_COMMENT("editComment", 5),
+    DELETE_COMMENT("deleteComment", 3),
+    /** Один пост по id; не входит в смесь по умолчанию — сравнение потоков ({@code -Ploadtest.only=readPost}). */
+    READ_POST("readPost", 0);
+
+    private final String key;
+    private final int defaultWeight;
+
+    Scenario(String key, int defaultWeight) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+    }
+
+    /** Имя в настройках ({@code loadtest.mix.<key>}), отчёте и заголовке {@value SqlCountingFilter#SCENARIO_HEADER}. */
+    String key() {
+        return key;
+    }
+
+    int defaultWeight() {
+        return defaultWeight;
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Наполнение БД через API: пользователи, их посты пачками через {@code /api/posts/bulk}
+ * и ветки комментариев через {@code /api/comments/bulk} (каждый третий — ответ на предыдущий).
+ */
+final class Seeder {
+
+    static final String PASSWORD = "loadtest-secret";
+    private static final int BULK_LIMIT = 5_000;
+
+    /** Что создано: токены пользователей и id постов в порядке создания. */
+    record Dataset(List<String> tokens, List<String> postIds) {}
+
+    private final ApiClient api;
+    private final LoadTestSettings settings;
+
+    Seeder(ApiClient api, LoadTestSettings settings) {
+        this.api = api;
+        this.settings = settings;
+    }
+
+    Dataset seed() throws Exception {
+        long started = System.nanoTime();
+        List<String> tokens = new ArrayList<>(settings.users());
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        for (int u = 0; u < settings.users(); u++) {
+            String username = "lt_" + runId + "_" + u;
+            Map<String, Object> user = new LinkedHashMap<>();
+            user.put("username", username);
+            user.put("email", username + "@loadtest.local");
+            user.put("password", PASSWORD);
+            api.require("POST", "/api/users/create", null, user);
+            JsonNode login = api.require("POST", "/api/auth/login", null, Map.of("username", username, "password", PASSWORD));
+            tokens.add(login.path("data").path("token").asText());
+        }
+
+        // посты раскладываются по авторам по кругу, каждый автор — одним или несколькими bulk-запросами
+        List<String> postIds = new ArrayList<>(settings.posts());
+        int perUser = (settings.posts() + tokens.size() - 1) / tokens.size();
+        int created = 0;
+        for (int u = 0; u < tokens.size() && created < settings.posts(); u++) {
+            int count = Math.min(perUser, settings.posts() - created);
+            for (int from = 0; from < count; from += BULK_LIMIT) {
+                List<Map<String, Object>> items = new ArrayList<>();
+                for (int i = from; i < Math.min(count, from + BULK_LIMIT); i++) {
+                    items.add(Map.of("title", "Нагрузочный пост " + (created + i),
+                            "content", "Текст поста для нагрузочного теста. ".repeat(20)));
+                }
+                postIds.addAll(ids(api.require("POST", "/api/posts/bulk", tokens.get(u), items)));
+            }
+            created += count;
+        }
+
+        // комментарии: пачки по BULK_LIMIT, автор пачки меняется по кругу
+        List<Map<String, Object>> batch = new ArrayList<>();
+        int author = 0;
+        for (String postId : postIds) {
+            for (int c = 0; c < settings.commentsPerPost(); c++) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                String ref = postId + ":" + c;
+                item.put("ref", ref);
+                item.put("postId", postId);
+                item.put("content", "Комментарий " + c + " к посту для нагрузочного теста.");
+                if (c % 3 == 2) {
+                    item.put("parentRef", postId + ":" + (c - 1));
+                }
+                batch.add(item);
+            }
+            if (batch.size() >= BULK_LIMIT) {
+                api.require("POST", "/api/comments/bulk", tokens.get(author++ % tokens.size()), batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            api.require("POST", "/api/comments/bulk", tokens.get(author % tokens.size()), batch);
+        }
+
+        System.out.printf("Seeded %d users, %d posts, %d comments in %.1fs%n", tokens.size(), postIds.size(),
+                (long) postIds.size() * settings.commentsPerPost(), (System.nanoTime() - started) / 1e9);
+        return new Dataset(tokens, postIds);
+    }
+
+    private static List<String> ids(JsonNode bulkResponse) {
+        List<String> ids = new ArrayList<>();
+        for (JsonNode item : bulkResponse.path("data")) {
+            if (!item.path("id").isNull()) {
+                ids.add(item.path("id").asText());
+            }
+        }
+        return ids;
+    }
+}
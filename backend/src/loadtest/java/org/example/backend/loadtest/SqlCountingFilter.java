@@ -0,0 +1,58 @@
+package org.example.backend.loadtest;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.backend.metrics.SqlStatementMetricsFilter;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Складывает число SQL-операторов каждого запроса в счётчик его сценария.
+ * Само число считает {@link SqlStatementMetricsFilter} приложения (он стоит внутри этого фильтра);
+ * сценарий передаёт нагрузочный клиент в заголовке {@value #SCENARIO_HEADER},
+ * запросы без заголовка (наполнение данными) не учитываются.
+ */
+class SqlCountingFilter extends OncePerRequestFilter {
+
+    static final String SCENARIO_HEADER = "X-Loadtest-Scenario";
+
+    private final Map<String, LongAdder> statements = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String scenario = request.getHeader(SCENARIO_HEADER);
+        if (scenario == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.getAttribute(SqlStatementMetricsFilter.COUNT_ATTRIBUTE) instanceof Long count) {
+                statements.computeIfAbsent(scenario, k -> new LongAdder()).add(count);
+            }
+            requests.computeIfAbsent(scenario, k -> new LongAdder()).increment();
+        }
+    }
+
+    /** Сбросить накопленное (после прогрева). */
+    void reset() {
+        statements.clear();
+        requests.clear();
+    }
+
+    /** Среднее число SQL-операторов на запрос сценария. */
+    double statementsPerRequest(String scenario) {
+        LongAdder count = requests.get(scenario);
+        LongAdder sql = statements.get(scenario);
+        return count == null || count.sum() == 0 || sql == null ? 0 : (double) sql.sum() / count.sum();
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.backend.availability;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Фильтр Блума над строками: {@link #mightContain} = {@code false} — строку точно не добавляли,
+ * {@code true} — возможно, добавляли (ложное срабатывание с вероятностью, заданной при создании).
+ * Удалить строку нельзя.
+ * <p>
+ * Биты лежат в {@link AtomicLongArray}: добавление и проверка идут без блокировок из любых потоков.
+ * Позиции битов — двойное хеширование ({@code h1 + i * h2}) от одного 64-битного хеша строки.
+ */
+public final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final long capacity;
+    private final AtomicLong entries = new AtomicLong();
+
+    /**
+     * @param capacity          сколько строк рассчитано положить без роста доли ложных срабатываний
+     * @param falsePositiveRate доля ложных срабатываний при заполнении до {@code capacity}
+     */
+    public BloomFilter(long capacity, double falsePositiveRate) {
+        if (capacity < 1 || !(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("capacity должна быть положительной, falsePositiveRate — от 0 до 1");
+        }
+        long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2));
+        long wordCount = Math.max(1, (optimalBits + 63) / 64);
+        if (wordCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Фильтр на " + capacity + " строк не помещается в память");
+        }
+        this.words = new AtomicLongArray((int) wordCount);
+        this.bits = wordCount * 64;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * LN2));
+        this.capacity = capacity;
+    }
+
+    public void put(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            long mask = 1L << bit;
+            words.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+        }
+        entries.incrementAndGet();
+    }
+
+    public boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Сколько раз вызывался {@link #put} (повторы одной строки считаются). */
+    public long entries() {
+        return entries.get();
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    /** Размер фильтра в байтах. */
+    public long sizeInBytes() {
+        return bits / 8;
+    }
+
+    /** FNV-1a по символам строки с финальным перемешиванием — одинаковый результат на любой JVM. */
+    private static long hash(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    /** Финальное перемешивание MurmurHash3 (fmix64). */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
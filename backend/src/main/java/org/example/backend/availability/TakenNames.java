@@ -0,0 +1,183 @@
+package org.example.backend.availability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.config.UserAvailabilityProperties;
+import org.example.backend.repository.UserKeyRow;
+import org.example.backend.repository.UserRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Занятые username и email в фильтре Блума — ответ на проверку занятости без запроса к БД.
+ * <p>
+ * «Не занято» по фильтру — окончательный ответ; «возможно, занято» перепроверяется в БД,
+ * так что запрос уходит только на действительно занятые значения и на долю ложных срабатываний.
+ * Фильтр строится при старте потоковым чтением таблицы {@code users}, пополняется при регистрации
+ * и смене username/email. Удалить значение из фильтра нельзя: освободившиеся значения
+ * лишь считаются и отвечаются через БД, пока фильтр не перестроится.
+ * <p>
+ * Ответ носит справочный характер: регистрацию на этом экземпляре видно сразу, на других — после
+ * перестройки ({@code max-age}). Окончательно занятость проверяют уникальные ограничения таблицы.
+ */
+@Slf4j
+@Component
+public class TakenNames {
+
+    private static final String USERNAME = "u:";
+    private static final String EMAIL = "e:";
+
+    private final UserRepository users;
+    private final UserAvailabilityProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+
+    /** {@code null}, пока фильтр не построен: до этого на всё отвечает БД. */
+    private volatile Built current;
+    /** Фильтр, который сейчас строится: новые значения пишутся и в него, чтобы не потеряться при замене. */
+    private volatile BloomFilter next;
+    /** Значения в текущем фильтре, которые уже свободны. */
+    private final AtomicLong stale = new AtomicLong();
+
+    private final Counter free;
+    private final Counter taken;
+    private final Counter falsePositive;
+    private final Counter notReady;
+
+    private record Built(BloomFilter filter, long builtAt) {
+    }
+
+    public TakenNames(UserRepository users,
+                      UserAvailabilityProperties properties,
+                      PlatformTransactionManager transactionManager,
+                      MeterRegistry registry) {
+        this.users = users;
+        this.properties = properties;
+        // PostgreSQL отдаёт строки порциями только внутри транзакции
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.free = check(registry, "free");
+        this.taken = check(registry, "taken");
+        this.falsePositive = check(registry, "false_positive");
+        this.notReady = check(registry, "not_ready");
+        Gauge.builder("users.availability.filter.bytes", this, t -> t.current == null ? 0 : t.current.filter().sizeInBytes())
+                .description("Memory held by the taken usernames and emails filter")
+                .register(registry);
+    }
+
+    public boolean isUsernameTaken(String username) {
+        return isTaken(USERNAME + username, () -> users.existsByUsername(username));
+    }
+
+    public boolean isEmailTaken(String email) {
+        return isTaken(EMAIL + email, () -> users.existsByEmail(email));
+    }
+
+    /** Учесть нового пользователя — вызывать после коммита. */
+    public void add(String username, String email) {
+        put(USERNAME + username);
+        put(EMAIL + email);
+    }
+
+    /** Учесть смену username и/или email — вызывать после коммита. */
+    public void changed(String oldUsername, String oldEmail, String newUsername, String newEmail) {
+        if (!Objects.equals(oldUsername, newUsername)) {
+            put(USERNAME + newUsername);
+            stale.incrementAndGet();
+        }
+        if (!Objects.equals(oldEmail, newEmail)) {
+            put(EMAIL + newEmail);
+            stale.incrementAndGet();
+        }
+    }
+
+    /** Учесть удаление пользователя: его username и email остаются в фильтре до перестройки. */
+    public void removed() {
+        stale.addAndGet(2);
+    }
+
+    /**
+     * Построить фильтр при старте и перестроить, когда он устарел ({@code max-age}),
+     * переполнен или в нём слишком много освободившихся значений.
+     */
+    @Scheduled(fixedDelayString = "${app.users.availability.check-interval:PT1M}")
+    public void rebuildIfNeeded() {
+        Built built = current;
+        if (built == null
+                || System.nanoTime() - built.builtAt() > properties.getMaxAge().toNanos()
+                || built.filter().entries() > built.filter().capacity()
+                || stale.get() > built.filter().entries() * properties.getMaxStaleRatio()) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        long started = System.nanoTime();
+        long staleBefore = stale.get();
+        long userCount = users.count();
+        BloomFilter filter = new BloomFilter(
+                2 * Math.max(properties.getExpectedUsers(), userCount + userCount / 2),
+                properties.getFalsePositiveRate());
+        // next выставляется до чтения таблицы: запись, закоммиченная после снимка, попадёт в фильтр через put
+        next = filter;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<UserKeyRow> rows = users.streamKeys()) {
+                    rows.forEach(row -> {
+                        filter.put(USERNAME + row.getUsername());
+                        filter.put(EMAIL + row.getEmail());
+                    });
+                }
+            });
+            current = new Built(filter, System.nanoTime());
+            stale.addAndGet(-staleBefore);
+            log.info("Taken names filter rebuilt: {} values, {} KiB, {} ms",
+                    filter.entries(), filter.sizeInBytes() / 1024, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось перестроить фильтр занятых имён, остаётся прежний", e);
+        } finally {
+            next = null;
+        }
+    }
+
+    private boolean isTaken(String key, BooleanSupplier lookup) {
+        Built built = current;
+        if (built != null && !built.filter().mightContain(key)) {
+            free.increment();
+            return false;
+        }
+        boolean result = lookup.getAsBoolean();
+        (built == null ? notReady : result ? taken : falsePositive).increment();
+        return result;
+    }
+
+    /**
+     * {@code next} читается раньше {@code current}: при замене фильтра {@code current} выставляется
+     * до сброса {@code next}, так что значение попадёт в новый фильтр при любом чередовании.
+     */
+    private void put(String key) {
+        BloomFilter building = next;
+        Built built = current;
+        if (building != null) {
+            building.put(key);
+        }
+        if (built != null && built.filter() != building) {
+            built.filter().put(key);
+        }
+    }
+
+    private static Counter check(MeterRegistry registry, String result) {
+        return Counter.builder("users.availability.checks")
+                .description("Username and email availability checks by how they were answered")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,277 @@
+package org.example.backend.bulk;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.config.BulkProperties;
+import org.example.backend.counter.CommentCounterBuffer;
+import org.example.backend.dto.BulkCommentRequest;
+import org.example.backend.dto.BulkItemResult;
+import org.example.backend.dto.PostRequest;
+import org.example.backend.feed.Timeline;
+import org.example.backend.mapper.CommentMapper;
+import org.example.backend.mapper.PostMapper;
+import org.example.backend.model.Comment;
+import org.example.backend.model.Post;
+import org.example.backend.model.User;
+import org.example.backend.repository.CommentRepository;
+import org.example.backend.repository.PostRepository;
+import org.example.backend.stream.CommentStreamHub;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Пакетная запись постов и комментариев.
+ * <p>
+ * Элементы пишутся порциями по {@code app.bulk.chunk-size}, каждая порция — своя транзакция.
+ * Id генерирует Hibernate в памяти (UUID), поэтому INSERT-ы не ждут ответа БД по одному
+ * и уходят JDBC-батчами ({@code hibernate.jdbc.batch_size}). После порции контекст
+ * персистентности очищается, чтобы память и dirty checking не росли с размером пакета.
+ * <p>
+ * Ошибка валидации задевает только свой элемент; ошибка записи — только свою порцию.
+ * Причины ошибок элементов — по-английски, как {@code reason} у {@code ResponseStatusException} в контроллерах.
+ */
+@Slf4j
+@Component
+public class BulkWriter {
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final BulkProperties properties;
+    private final PostMapper postMapper;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final CommentCounterBuffer counters;
+    private final Timeline timeline;
+    private final CommentMapper commentMapper;
+    private final CommentStreamHub commentStream;
+
+    public BulkWriter(EntityManager entityManager,
+                      PlatformTransactionManager transactionManager,
+                      Validator validator,
+                      BulkProperties properties,
+                      PostMapper postMapper,
+                      PostRepository postRepository,
+                      CommentRepository commentRepository,
+                      CommentCounterBuffer counters,
+                      Timeline timeline,
+                      CommentMapper commentMapper,
+                      CommentStreamHub commentStream) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.properties = properties;
+        this.postMapper = postMapper;
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.counters = counters;
+        this.timeline = timeline;
+        this.commentMapper = commentMapper;
+        this.commentStream = commentStream;
+    }
+
+    /**
+     * Создать посты от имени одного автора.
+     *
+     * @return результат по каждому элементу, в порядке запроса
+     */
+    public List<BulkItemResult> createPosts(List<PostRequest> items, UUID authorId) {
+        properties.check(items.size());
+        var results = new BulkItemResult[items.size()];
+
+        List<Integer> pending = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            String error = validate(items.get(i));
+            if (error != null) {
+                results[i] = BulkItemResult.failed(i, null, error);
+            } else {
+                pending.add(i);
+            }
+        }
+
+        for (List<Integer> chunk : chunks(pending)) {
+            try {
+                List<Post> saved = transactionTemplate.execute(status -> {
+                    User author = entityManager.getReference(User.class, authorId);
+                    List<Post> posts = new ArrayList<>(chunk.size());
+                    for (int i : chunk) {
+                        Post post = postMapper.toEntity(items.get(i), author);
+                        entityManager.persist(post);
+                        posts.add(post);
+                    }
+                    flushAndClear();
+                    timeline.fanOut(authorId, posts);
+                    return posts;
+                });
+                for (int k = 0; k < chunk.size(); k++) {
+                    results[chunk.get(k)] = BulkItemResult.created(chunk.get(k), null, saved.get(k).getId());
+                }
+            } catch (RuntimeException e) {
+                failChunk(results, chunk, null, e);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Создать комментарии от имени одного автора. Ответ может ссылаться на комментарий
+     * из этого же пакета через {@code parentRef}, если тот стоит раньше.
+     * Подписчики ленты поста получают {@code created} по каждому комментарию после коммита его порции.
+     *
+     * @param authorName имя автора для событий ленты — без лишнего запроса за пользователем
+     * @return результат по каждому элементу, в порядке запроса
+     */
+    public List<BulkItemResult> createComments(List<BulkCommentRequest> items, UUID authorId, String authorName) {
+        properties.check(items.size());
+        var results = new BulkItemResult[items.size()];
+
+        // существование постов и внешних родителей — двумя запросами на весь пакет
+        Set<UUID> posts = existing(items.stream().map(BulkCommentRequest::getPostId), postRepository::findExistingIds);
+        Set<UUID> parents = existing(items.stream().map(BulkCommentRequest::getParentCommentId), commentRepository::findExistingIds);
+
+        List<Integer> pending = new ArrayList<>(items.size());
+        Set<String> refs = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            var item = items.get(i);
+            String error = validate(item);
+            if (error == null && item.getPostId() == null) {
+                error = "postId: is required";
+            } else if (error == null && !posts.contains(item.getPostId())) {
+                error = "Post not found";
+            } else if (error == null && item.getParentCommentId() != null && item.getParentRef() != null) {
+                error = "Either parentCommentId or parentRef is allowed, not both";
+            } else if (error == null && item.getParentCommentId() != null && !parents.contains(item.getParentCommentId())) {
+                error = "Parent comment not found";
+            } else if (error == null && item.getParentRef() != null && !refs.contains(item.getParentRef())) {
+                error = "parentRef must point to an earlier item in the batch";
+            } else if (error == null && item.getRef() != null && refs.contains(item.getRef())) {
+                error = "Duplicate ref: " + item.getRef();
+            }
+            if (item.getRef() != null) {
+                refs.add(item.getRef());
+            }
+            if (error != null) {
+                results[i] = BulkItemResult.failed(i, item.getRef(), error);
+            } else {
+                pending.add(i);
+            }
+        }
+
+        // ref -> id уже записанных комментариев (из закоммиченных порций)
+        Map<String, UUID> created = new HashMap<>();
+        for (List<Integer> chunk : chunks(pending)) {
+            Map<String, UUID> chunkRefs = new HashMap<>();
+            List<Integer> written = new ArrayList<>(chunk.size());
+            try {
+                List<Comment> saved = transactionTemplate.execute(status -> {
+                    User author = entityManager.getReference(User.class, authorId);
+                    List<Comment> comments = new ArrayList<>(chunk.size());
+                    for (int i : chunk) {
+                        var item = items.get(i);
+                        UUID parentId = item.getParentRef() == null
+                                ? item.getParentCommentId()
+                                : created.getOrDefault(item.getParentRef(), chunkRefs.get(item.getParentRef()));
+                        if (item.getParentRef() != null && parentId == null) {
+                            results[i] = BulkItemResult.failed(i, item.getRef(), "Parent comment was not created");
+                            continue;
+                        }
+                        Comment comment = new Comment();
+                        comment.setPost(entityManager.getReference(Post.class, item.getPostId()));
+                        comment.setCreatedBy(author);
+                        comment.setContent(item.getContent());
+                        comment.setCreatedDate(LocalDateTime.now());
+                        comment.setParentComment(parentId == null ? null : entityManager.getReference(Comment.class, parentId));
+                        entityManager.persist(comment);
+                        if (item.getRef() != null) {
+                            chunkRefs.put(item.getRef(), comment.getId());
+                        }
+                        comments.add(comment);
+                        written.add(i);
+                    }
+                    flushAndClear();
+                    for (Comment comment : comments) {
+                        commentStream.publish(comment.getPost().getId(), CommentStreamHub.CREATED,
+                                commentMapper.toDto(comment, authorName));
+                    }
+                    return comments;
+                });
+                created.putAll(chunkRefs);
+                for (int k = 0; k < written.size(); k++) {
+                    int i = written.get(k);
+                    Comment comment = saved.get(k);
+                    results[i] = BulkItemResult.created(i, items.get(i).getRef(), comment.getId());
+                    counters.commentCreated(items.get(i).getPostId(),
+                            comment.getParentComment() == null ? null : comment.getParentComment().getId(),
+                            comment.getCreatedDate());
+                }
+            } catch (RuntimeException e) {
+                failChunk(results, chunk, i -> items.get(i).getRef(), e);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private String validate(Object item) {
+        if (item == null) {
+            return "Item is empty";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static Set<UUID> existing(Stream<UUID> ids,
+                                      Function<Set<UUID>, List<UUID>> lookup) {
+        Set<UUID> requested = ids.filter(Objects::nonNull).collect(Collectors.toSet());
+        return requested.isEmpty() ? Set.of() : new HashSet<>(lookup.apply(requested));
+    }
+
+    private List<List<Integer>> chunks(List<Integer> indexes) {
+        int size = Math.max(1, properties.getChunkSize());
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < indexes.size(); from += size) {
+            chunks.add(indexes.subList(from, Math.min(from + size, indexes.size())));
+        }
+        return chunks;
+    }
+
+    private static void failChunk(BulkItemResult[] results, List<Integer> chunk,
+                                  IntFunction<String> refOf, RuntimeException e) {
+        String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        log.warn("Bulk chunk of {} items failed: {}", chunk.size(), cause);
+        for (int i : chunk) {
+            if (results[i] == null) {
+                results[i] = BulkItemResult.failed(i, refOf == null ? null : refOf.apply(i), "Chunk write failed: " + cause);
+            }
+        }
+    }
+}
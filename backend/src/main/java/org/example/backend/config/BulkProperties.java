@@ -0,0 +1,30 @@
+package org.example.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки пакетной загрузки ({@code app.bulk.*}).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.bulk")
+public class BulkProperties {
+
+    /** Сколько элементов пишется в одной транзакции. */
+    private int chunkSize = 500;
+
+    /** Верхняя граница числа элементов в одном запросе. */
+    private int maxItems = 10_000;
+
+    /** Проверить размер пакета. */
+    public void check(int items) {
+        if (items == 0) {
+            throw new IllegalArgumentException("Пустой пакет");
+        }
+        if (items > maxItems) {
+            throw new IllegalArgumentException("Слишком большой пакет: " + items + " > " + maxItems);
+        }
+    }
+}
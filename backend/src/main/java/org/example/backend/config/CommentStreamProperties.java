@@ -0,0 +1,41 @@
+package org.example.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки живой ленты комментариев поста ({@code app.comments.stream.*}).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.comments.stream")
+public class CommentStreamProperties {
+
+    /**
+     * Сколько неотправленных событий может ждать один подписчик.
+     * Переполнение — признак медленного клиента: его поток закрывается, и он переподключается
+     * с {@code Last-Event-ID}.
+     */
+    private int bufferSize = 64;
+
+    /** Сколько последних событий поста хранится для догона по {@code Last-Event-ID}. */
+    private int replaySize = 256;
+
+    /** Интервал пустых событий-комментариев, по которым прокси и клиент видят живое соединение. */
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    /** Время жизни одного соединения; потом клиент переподключается сам. */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /** Верхняя граница одновременных подписчиков на экземпляр; сверх неё — 503. */
+    private int maxSubscribers = 10_000;
+
+    /** Потоки, пишущие события в соединения (общие для всех подписчиков). */
+    private int senderThreads = 4;
+
+    /** Сколько хранится история поста, на который больше никто не подписан. */
+    private Duration idleTopicTtl = Duration.ofMinutes(5);
+}
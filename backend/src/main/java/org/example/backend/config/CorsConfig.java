@@ -10,7 +10,8 @@ public class CorsConfig implements WebMvcConfigurer {
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
                 .allowedOrigins("http://localhost:3000")  // Для фронтенда на React
-                .allowedMethods("*");
+                .allowedMethods("*")
+                .exposedHeaders("ETag", "Last-Modified");  // для условных GET с фронтенда
     }
 }
 
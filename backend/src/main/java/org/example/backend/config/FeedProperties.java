@@ -0,0 +1,23 @@
+package org.example.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки домашней ленты ({@code app.feed.*}).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.feed")
+public class FeedProperties {
+
+    /**
+     * Авторы с числом подписчиков больше порога не раскладываются по лентам при публикации:
+     * их посты подмешиваются в ленту при чтении.
+     */
+    private long fanoutThreshold = 10_000;
+
+    /** Сколько последних постов автора попадает в ленту сразу после подписки. */
+    private int followBackfill = 50;
+}
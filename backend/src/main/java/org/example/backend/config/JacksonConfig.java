@@ -0,0 +1,22 @@
+package org.example.backend.config;
+
+import org.example.backend.web.PostFields;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Фильтр полей поста по умолчанию пропускает всё; сужает его {@code PostFieldsResponseAdvice}.
+     * Без зарегистрированного фильтра сериализация {@code PostResponse} падает, поэтому ObjectMapper,
+     * собранный вне контекста (бенчмарки), настраивается этим же customizer.
+     */
+    public static final Jackson2ObjectMapperBuilderCustomizer POST_FIELDS = builder -> builder.filters(PostFields.SERIALIZE_ALL);
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer postFieldsFilter() {
+        return POST_FIELDS;
+    }
+}
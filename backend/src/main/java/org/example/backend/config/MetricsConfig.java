@@ -0,0 +1,54 @@
+package org.example.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.backend.metrics.CountingJdbcTemplate;
+import org.example.backend.metrics.SqlStatementMetricsFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.JdbcProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Метрики приложения сверх того, что Actuator собирает сам
+ * (HTTP-таймеры, Hikari, статистика Hibernate).
+ */
+@Configuration
+public class MetricsConfig {
+
+    /** Отдавать число SQL-операторов в заголовке ответа — только для отладки. */
+    @Value("${app.metrics.sql-count-header:false}")
+    private boolean sqlCountHeader;
+
+    /** До цепочки Spring Security, чтобы в подсчёт попадала и загрузка пользователя при HTTP Basic. */
+    @Bean
+    public FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilter(MeterRegistry registry) {
+        var registration = new FilterRegistrationBean<>(new SqlStatementMetricsFilter(registry, sqlCountHeader));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /**
+     * Вместо автоконфигурированного {@link JdbcTemplate} (с теми же {@code spring.jdbc.template.*}):
+     * его операторы тоже считаются. {@code NamedParameterJdbcTemplate} Spring Boot строит поверх этого бина.
+     */
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource, JdbcProperties properties) {
+        var jdbcTemplate = new CountingJdbcTemplate(dataSource);
+        JdbcProperties.Template template = properties.getTemplate();
+        jdbcTemplate.setIgnoreWarnings(template.isIgnoreWarnings());
+        jdbcTemplate.setFetchSize(template.getFetchSize());
+        jdbcTemplate.setMaxRows(template.getMaxRows());
+        if (template.getQueryTimeout() != null) {
+            jdbcTemplate.setQueryTimeout((int) template.getQueryTimeout().getSeconds());
+        }
+        jdbcTemplate.setSkipResultsProcessing(template.isSkipResultsProcessing());
+        jdbcTemplate.setSkipUndeclaredResults(template.isSkipUndeclaredResults());
+        jdbcTemplate.setResultsMapCaseInsensitive(template.isResultsMapCaseInsensitive());
+        return jdbcTemplate;
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки пагинации списков ({@code app.pagination.*}).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.pagination")
+public class PaginationProperties {
+
+    /** Размер страницы, если клиент не передал {@code size}. */
+    private int defaultSize = 20;
+
+    /** Верхняя граница размера страницы. */
+    private int maxSize = 200;
+
+    /** Привести запрошенный размер страницы к допустимому диапазону. */
+    public int resolve(Integer requested) {
+        if (requested == null) {
+            return defaultSize;
+        }
+        return Math.max(1, Math.min(requested, maxSize));
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.backend.ratelimit.RateLimitFilter;
+import org.example.backend.ratelimit.RateLimiter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+/**
+ * Ограничение частоты пишущих запросов ({@link RateLimitProperties}).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiter rateLimiter(RateLimitProperties properties, MeterRegistry registry) {
+        return new RateLimiter(properties, registry);
+    }
+
+    /** Сразу за цепочкой Spring Security — к этому моменту пользователь уже известен. */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+            RateLimiter limiter,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+        var registration = new FilterRegistrationBean<>(new RateLimitFilter(limiter, exceptionResolver));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
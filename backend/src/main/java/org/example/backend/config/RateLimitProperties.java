@@ -0,0 +1,46 @@
+package org.example.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ограничение частоты пишущих запросов ({@code app.rate-limit.*}).
+ * <p>
+ * Группы проверяются в порядке объявления, запрос попадает в первую подходящую.
+ * У каждого клиента (пользователь, а без аутентификации — IP) в каждой группе своё ведро.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Сколько вёдер держать в памяти; при переполнении вытесняются давно не использованные. */
+    private long maxClients = 100_000;
+
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    @Data
+    public static class Group {
+
+        /** HTTP-методы; пусто — любые. */
+        private List<String> methods = new ArrayList<>();
+
+        /** Шаблоны путей ({@code /api/comments/create}, {@code /api/**}). */
+        private List<String> paths = new ArrayList<>();
+
+        /** Размер ведра — сколько запросов можно сделать подряд. */
+        private int capacity = 60;
+
+        /** За это время пустое ведро наполняется целиком. */
+        private Duration period = Duration.ofMinutes(1);
+    }
+}
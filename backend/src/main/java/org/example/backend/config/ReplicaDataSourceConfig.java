@@ -0,0 +1,71 @@
+package org.example.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.backend.datasource.ReplicaRouter;
+import org.example.backend.datasource.ReplicaRoutingDataSource;
+import org.example.backend.datasource.ReplicaRoutingInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Разделение чтения и записи: включается, когда задан {@code app.datasource.replica.url}.
+ * Основной пул по-прежнему настраивается {@code spring.datasource.*}, пул реплики —
+ * {@code app.datasource.replica.*}; JPA, JdbcTemplate и Flyway получают маршрутизирующий {@link DataSource}.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replica.url:}'.isBlank()")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(ReplicaProperties replica, DataSourceProperties primary) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(isBlank(replica.getUsername()) ? primary.determineUsername() : replica.getUsername());
+        dataSource.setPassword(isBlank(replica.getPassword()) ? primary.determinePassword() : replica.getPassword());
+        // недоступная реплика не должна держать запрос: быстро сдаёмся и читаем из основной БД
+        dataSource.setConnectionTimeout(1_000);
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRouter replicaRouter(HikariDataSource replicaDataSource, ReplicaProperties properties,
+                                       MeterRegistry meterRegistry) {
+        return new ReplicaRouter(replicaDataSource, properties, meterRegistry);
+    }
+
+    @Bean
+    public ReplicaRoutingInterceptor replicaRoutingInterceptor(ReplicaRouter replicaRouter) {
+        return new ReplicaRoutingInterceptor(replicaRouter);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                 ReplicaRouter replicaRouter) {
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaRouter));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Реплика PostgreSQL для чтения ({@code app.datasource.replica.*}).
+ * Пока {@code url} пуст, реплики нет и всё идёт в основную БД.
+ * Пул реплики настраивается отдельно: {@code app.datasource.replica.hikari.*}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaProperties {
+
+    /** JDBC URL реплики; пусто — маршрутизация выключена. */
+    private String url;
+
+    /** Пользователь реплики; пусто — тот же, что у основной БД. */
+    private String username;
+
+    /** Пароль реплики; пусто — тот же, что у основной БД. */
+    private String password;
+
+    /** Сколько после своей записи пользователь читает из основной БД, чтобы видеть свои изменения. */
+    private Duration readYourWrites = Duration.ofSeconds(5);
+
+    /** Отставание, после которого чтение уходит в основную БД, пока реплика не догонит. */
+    private Duration maxLag = Duration.ofSeconds(10);
+
+    /** Как часто проверять доступность и отставание реплики. */
+    private Duration checkInterval = Duration.ofSeconds(5);
+
+    /** Запрос отставания в секундах (по умолчанию — для потоковой физической репликации). */
+    private String lagQuery = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE coalesce(extract(epoch FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END""";
+}
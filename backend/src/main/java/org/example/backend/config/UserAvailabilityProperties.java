@@ -0,0 +1,40 @@
+package org.example.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки проверки занятости username и email ({@code app.users.availability.*}).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.users.availability")
+public class UserAvailabilityProperties {
+
+    /**
+     * На сколько пользователей рассчитан фильтр. Если в таблице больше,
+     * фильтр строится с запасом в полтора раза от фактического числа.
+     */
+    private long expectedUsers = 1_000_000;
+
+    /** Доля ответов «возможно, занято», которые приходится перепроверять в БД. */
+    private double falsePositiveRate = 0.01;
+
+    /** Как часто проверять, не пора ли перестроить фильтр. */
+    private Duration checkInterval = Duration.ofMinutes(1);
+
+    /**
+     * Фильтр перестраивается не реже этого интервала — так в него попадают регистрации
+     * через другие экземпляры приложения.
+     */
+    private Duration maxAge = Duration.ofHours(1);
+
+    /**
+     * Доля устаревших значений (удалённые пользователи, сменённые username и email),
+     * после которой фильтр перестраивается раньше {@code max-age}.
+     */
+    private double maxStaleRatio = 0.1;
+}
@@ -0,0 +1,42 @@
+package org.example.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Профиль {@code virtual}: обработка запросов на виртуальных потоках (см. application-virtual.properties).
+ * <p>
+ * Spring Boot включает виртуальные потоки только на JDK 21+, на более старой JVM свойство
+ * молча игнорируется — здесь об этом хотя бы предупреждаем. Сборка и тесты идут на JDK 17,
+ * поэтому сравнение с платформенными потоками запускается отдельной задачей на JDK 21:
+ * {@code ./gradlew loadTestJdk21 -Ploadtest.only=readPost -Ploadtest.threads=virtual ...} (см. {@code LoadTestRunner}).
+ * <p>
+ * Замер в {@code bench/results/virtual-threads-*.json} (1 vCPU, RTT до БД 20 мс, пул 20 соединений, GET поста):
+ * при 200 клиентах виртуальные потоки дают 220 req/s против 178 и p50 0,86 с против 1,02 с, но 4,5% запросов
+ * получают 503 по {@code connection-timeout=2000}; при 1000 клиентах очередь за пулом длиннее двух секунд,
+ * и 503 получает большинство запросов, тогда как платформенные потоки держат очередь в Tomcat (266 req/s без ошибок).
+ * Потолок здесь — пул соединений, а не потоки: профиль имеет смысл вместе с пулом и таймаутом под ожидаемую очередь.
+ * <p>
+ * Аудит закрепления (pinning) несущих потоков: в коде приложения нет {@code synchronized}
+ * вокруг блокирующих вызовов — буфер счётчиков и кэши построены на {@code ConcurrentHashMap},
+ * {@code TokenService} создаёт {@code Mac} на вызов. Драйвер PostgreSQL (42.6+) и HikariCP
+ * перешли с мониторов на {@code ReentrantLock}. Проверить на стенде:
+ * {@code -Djdk.tracePinnedThreads=short} печатает стек каждого закрепления.
+ */
+@Slf4j
+@Configuration
+@Profile("virtual")
+public class VirtualThreadsConfig {
+
+    @PostConstruct
+    void checkRuntime() {
+        int feature = Runtime.version().feature();
+        if (feature < 21) {
+            log.warn("Profile 'virtual' is active, but JDK {} has no virtual threads: running on platform threads", feature);
+        } else {
+            log.info("Request handling runs on virtual threads; concurrency is bounded by the Hikari pool");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.backend.config;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.datasource.ReplicaRoutingInterceptor;
+import org.example.backend.security.CurrentUserArgumentResolver;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final CurrentUserArgumentResolver currentUserArgumentResolver;
+    /** Есть, только если настроена реплика ({@link ReplicaDataSourceConfig}). */
+    private final ObjectProvider<ReplicaRoutingInterceptor> replicaRoutingInterceptor;
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentUserArgumentResolver);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        replicaRoutingInterceptor.ifAvailable(registry::addInterceptor);
+    }
+}
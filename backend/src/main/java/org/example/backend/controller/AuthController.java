@@ -0,0 +1,48 @@
+package org.example.backend.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.LoginRequest;
+import org.example.backend.dto.TokenResponse;
+import org.example.backend.dto.UnuversalOkResponce;
+import org.example.backend.model.User;
+import org.example.backend.repository.UserRepository;
+import org.example.backend.security.TokenService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+
+/**
+ * Контроллер аутентификации: обмен логина и пароля на токен доступа.
+ */
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class AuthController {
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TokenService tokenService;
+
+    /**
+     * Войти и получить токен. Пароль проверяется через BCrypt один раз здесь,
+     * дальше запросы аутентифицируются заголовком {@code Authorization: Bearer <token>}.
+     *
+     * @param request логин и пароль
+     * @return токен и время его истечения
+     */
+    @PostMapping("/login")
+    public ResponseEntity<UnuversalOkResponce<TokenResponse>> login(@Valid @RequestBody LoginRequest request) {
+        User user = userRepository.findByUsername(request.getUsername())
+                .filter(u -> passwordEncoder.matches(request.getPassword(), u.getPasswordHash()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Неверный логин или пароль"));
+
+        var claims = tokenService.claimsFor(user.getId(), user.getUsername());
+        var token = new TokenResponse(tokenService.issue(claims), "Bearer", claims.expiresAt());
+        var ok = UnuversalOkResponce.ok(token, "Вход выполнен");
+        return ResponseEntity.ok(ok);
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.backend.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.CacheRegionStats;
+import org.example.backend.dto.UnuversalOkResponce;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Статистика кэша второго уровня Hibernate — для подбора размеров регионов.
+ */
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheStatsController {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Получить попадания/промахи по регионам кэша (включая natural-id регион).
+     *
+     * @return статистика регионов
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<UnuversalOkResponce<List<CacheRegionStats>>> getStats() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<CacheRegionStats> regions = new ArrayList<>();
+        Arrays.stream(stats.getSecondLevelCacheRegionNames()).sorted().forEach(name -> {
+            CacheRegionStatistics region = stats.getDomainDataRegionStatistics(name);
+            if (region != null) {
+                regions.add(CacheRegionStats.of(name, region.getHitCount(), region.getMissCount(),
+                        region.getPutCount(), region.getElementCountInMemory()));
+            }
+        });
+
+        var ok = UnuversalOkResponce.ok(regions, "Статистика кэша получена")
+                .with("statisticsEnabled", stats.isStatisticsEnabled());
+        return ResponseEntity.ok(ok);
+    }
+}
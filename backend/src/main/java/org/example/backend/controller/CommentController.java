@@ -2,28 +2,45 @@ package org.example.backend.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.backend.bulk.BulkWriter;
+import org.example.backend.config.PaginationProperties;
+import org.example.backend.counter.CommentCounterBuffer;
+import org.example.backend.dto.BulkCommentRequest;
+import org.example.backend.dto.BulkItemResult;
 import org.example.backend.dto.CommentRequest;
 import org.example.backend.dto.CommentResponse;
+import org.example.backend.dto.CommentSearchResponse;
+import org.example.backend.dto.CommentThreadResponse;
+import org.example.backend.dto.CommentTree;
+import org.example.backend.dto.CommentTreeResponse;
 import org.example.backend.dto.UnuversalOkResponce;
 import org.example.backend.mapper.CommentMapper;
 import org.example.backend.model.Comment;
 import org.example.backend.model.Post;
 import org.example.backend.model.User;
+import org.example.backend.pagination.Cursor;
+import org.example.backend.pagination.CursorPage;
+import org.example.backend.repository.CommentReplyRow;
 import org.example.backend.repository.CommentRepository;
 import org.example.backend.repository.PostRepository;
 import org.example.backend.repository.UserRepository;
+import org.example.backend.security.AuthUser;
+import org.example.backend.stream.CommentStreamHub;
+import org.example.backend.web.ResourceVersion;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Контроллер для управления комментариями.
@@ -32,30 +49,37 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/comments")
 @RequiredArgsConstructor
 public class CommentController {
+    private static final int MAX_TREE_DEPTH = 64;
+    private static final int MAX_REPLY_PREVIEW = 20;
+
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final CommentMapper commentMapper;
+    private final PaginationProperties pagination;
+    private final CommentCounterBuffer counters;
+    private final BulkWriter bulkWriter;
+    private final CommentStreamHub commentStream;
+    private final JdbcTemplate jdbcTemplate;
 
     /**
      * Создать комментарий (или ответ на другой комментарий).
      *
      * @param request DTO с данными комментария
-     * @param userDetails текущий пользователь (автор комментария)
+     * @param principal текущий пользователь (автор комментария)
      * @return созданный комментарий
      */
     @PostMapping("/create")
-    public ResponseEntity<Map<String, Object>> createComment(@Valid @RequestBody CommentRequest request,
-                                                             @AuthenticationPrincipal UserDetails userDetails) {
-        if (userDetails == null) {
+    public ResponseEntity<UnuversalOkResponce<CommentResponse>> createComment(@Valid @RequestBody CommentRequest request,
+                                                             @AuthenticationPrincipal AuthUser principal) {
+        if (principal == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
         }
 
         Post post = postRepository.findById(request.getPostId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Post not found"));
 
-        User user = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        User user = userRepository.getReferenceById(principal.getId());
 
         Comment parent = null;
         if (request.getParentCommentId() != null) {
@@ -71,29 +95,186 @@ public class CommentController {
         comment.setParentComment(parent);
 
         Comment saved = commentRepository.save(comment);
-        var ok = new UnuversalOkResponce(
-                commentMapper.toDto(saved),
-                "Комментарий создан",
-                HttpStatus.CREATED.value() + " " + HttpStatus.CREATED.getReasonPhrase()
-        );
-        return ResponseEntity.status(HttpStatus.CREATED).body(ok.getResponse());
+        counters.commentCreated(post.getId(), request.getParentCommentId(), saved.getCreatedDate());
+
+        CommentResponse dto = commentMapper.toDto(saved, principal.getUsername());
+        commentStream.publish(post.getId(), CommentStreamHub.CREATED, dto);
+
+        var ok = UnuversalOkResponce.of(HttpStatus.CREATED, dto, "Комментарий создан");
+        return ResponseEntity.status(HttpStatus.CREATED).body(ok);
+    }
+
+    /**
+     * Создать пачку комментариев (миграция контента). Ответ может ссылаться на комментарий
+     * из этого же пакета через {@code parentRef}. Элементы пишутся JDBC-батчами порциями;
+     * ошибка одного элемента не отменяет остальные.
+     *
+     * @param items     данные комментариев
+     * @param principal текущий пользователь (автор всех комментариев)
+     * @return результат по каждому элементу, {@code created} и {@code failed}
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<UnuversalOkResponce<List<BulkItemResult>>> createBulk(@RequestBody List<BulkCommentRequest> items,
+                                                          @AuthenticationPrincipal AuthUser principal) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+        var results = bulkWriter.createComments(items, principal.getId(), principal.getUsername());
+        return ResponseEntity.ok(BulkItemResult.summary(results));
     }
 
     /**
      * Получить все комментарии к посту.
+     * Для больших веток — постранично: {@code /post/{postId}/thread}.
      *
      * @param postId идентификатор поста
      * @return список комментариев
      */
     @GetMapping("/post/{postId}")
-    public ResponseEntity<Map<String, Object>> getCommentsByPost(@PathVariable UUID postId) {
-        List<CommentResponse> list = commentRepository.findByPost_IdOrderByCreatedDateAsc(postId)
-                .stream()
-                .map(commentMapper::toDto)
-                .collect(Collectors.toList());
-
-        var ok = new UnuversalOkResponce(list, "Комментарии получены", "200 OK");
-        return ResponseEntity.ok(ok.getResponse());
+    @Transactional(readOnly = true)
+    public ResponseEntity<UnuversalOkResponce<List<CommentResponse>>> getCommentsByPost(@PathVariable UUID postId, WebRequest request) {
+        if (ResourceVersion.isConditional(request)) {
+            var current = commentRepository.findThreadVersion(postId).withoutLastModified();
+            if (current.notModified(request)) {
+                return current.notModifiedResponse();
+            }
+        }
+        List<CommentResponse> list = commentRepository.findResponsesByPostId(postId);
+
+        var ok = UnuversalOkResponce.ok(list, "Комментарии получены");
+        return threadVersion(list).ok(ok);
+    }
+
+    /**
+     * Полнотекстовый поиск по комментариям с ранжированием и подсветкой совпадений.
+     *
+     * @param q    поисковый запрос (поддерживаются кавычки, {@code or} и {@code -слово})
+     * @param page номер страницы, с нуля
+     * @param size размер страницы
+     * @return найденные комментарии и {@code nextPage}
+     */
+    @GetMapping("/search")
+    @Transactional(readOnly = true)
+    public ResponseEntity<UnuversalOkResponce<List<CommentSearchResponse>>> search(@RequestParam String q,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(required = false) Integer size) {
+        if (q.isBlank()) {
+            throw new IllegalArgumentException("Пустой поисковый запрос");
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("page не может быть отрицательным");
+        }
+        int pageSize = pagination.resolve(size);
+        var rows = commentRepository.search(q, pageSize + 1, page * pageSize);
+
+        var ok = UnuversalOkResponce.ok(
+                rows.stream().limit(pageSize).map(commentMapper::toSearchDto).toList(),
+                "Результаты поиска получены"
+        ).with("nextPage", rows.size() > pageSize ? page + 1 : null);
+        return ResponseEntity.ok(ok);
+    }
+
+    /**
+     * Получить ветку комментариев поста деревом ответов.
+     * Ветка вместе с авторами читается одним запросом; ответы сверх {@code perLevel} отбрасывает сам запрос.
+     *
+     * @param postId   идентификатор поста
+     * @param maxDepth максимальная глубина ответов (0 — только комментарии верхнего уровня)
+     * @param perLevel максимум ответов на один комментарий (и комментариев верхнего уровня)
+     * @return дерево комментариев
+     */
+    @GetMapping("/post/{postId}/tree")
+    @Transactional(readOnly = true)
+    public ResponseEntity<UnuversalOkResponce<List<CommentTreeResponse>>> getCommentTree(@PathVariable UUID postId,
+                                                              @RequestParam(defaultValue = "16") int maxDepth,
+                                                              @RequestParam(defaultValue = "100") int perLevel) {
+        if (maxDepth < 0 || maxDepth > MAX_TREE_DEPTH) {
+            throw new IllegalArgumentException("maxDepth должен быть от 0 до " + MAX_TREE_DEPTH);
+        }
+        if (perLevel < 1) {
+            throw new IllegalArgumentException("perLevel должен быть положительным");
+        }
+        CommentTree tree = commentMapper.toTree(commentRepository.findThreadRows(postId, maxDepth, perLevel), perLevel);
+
+        var ok = UnuversalOkResponce.ok(tree.comments(), "Дерево комментариев получено")
+                .with("hiddenComments", tree.hiddenComments());
+        return ResponseEntity.ok(ok);
+    }
+
+    /**
+     * Получить страницу ветки комментариев поста: комментарии верхнего уровня (от старых к новым),
+     * у каждого — первые ответы. Страница и все превью читаются двумя запросами
+     * по индексу (post_id, parent_comment_id, created_date), сколько бы комментариев ни было у поста.
+     *
+     * @param postId  идентификатор поста
+     * @param cursor  курсор из {@code nextCursor} предыдущей страницы; пусто — первая страница
+     * @param size    размер страницы
+     * @param preview сколько ответов показать у каждого комментария (0 — без ответов)
+     * @return страница комментариев и {@code nextCursor}
+     */
+    @GetMapping("/post/{postId}/thread")
+    @Transactional(readOnly = true)
+    public ResponseEntity<UnuversalOkResponce<List<CommentThreadResponse>>> getThread(@PathVariable UUID postId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size,
+                                                              @RequestParam(defaultValue = "3") int preview) {
+        checkPreview(preview);
+        var page = commentRepository.findTopLevelPage(postId, Cursor.decodeAscending(cursor), pagination.resolve(size));
+        withReplyPreviews(page, preview);
+
+        var ok = UnuversalOkResponce.ok(page.items(), "Ветка комментариев получена")
+                .with("nextCursor", page.nextCursor());
+        return ResponseEntity.ok(ok);
+    }
+
+    /**
+     * Получить страницу ответов на комментарий (от старых к новым), у каждого — первые ответы на него.
+     * Продолжение превью из ветки — {@code cursor=repliesCursor}.
+     *
+     * @param id      идентификатор комментария
+     * @param cursor  курсор из {@code nextCursor} или {@code repliesCursor}; пусто — первая страница
+     * @param size    размер страницы
+     * @param preview сколько ответов показать у каждого ответа (0 — без ответов)
+     * @return страница ответов и {@code nextCursor}
+     */
+    @GetMapping("/{id}/replies")
+    @Transactional(readOnly = true)
+    public ResponseEntity<UnuversalOkResponce<List<CommentThreadResponse>>> getReplies(@PathVariable UUID id,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer size,
+                                                               @RequestParam(defaultValue = "3") int preview) {
+        checkPreview(preview);
+        UUID postId = commentRepository.findPostIdById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Comment not found"));
+        var page = commentRepository.findRepliesPage(postId, id, Cursor.decodeAscending(cursor), pagination.resolve(size));
+        withReplyPreviews(page, preview);
+
+        var ok = UnuversalOkResponce.ok(page.items(), "Ответы получены")
+                .with("nextCursor", page.nextCursor());
+        return ResponseEntity.ok(ok);
+    }
+
+    /**
+     * Подписаться на новые, изменённые и удалённые комментарии поста (Server-Sent Events).
+     * События {@code created}, {@code updated}, {@code deleted} несут комментарий в JSON,
+     * раз в {@code app.comments.stream.heartbeat} приходит пустое событие-комментарий.
+     * Переподключившийся с {@code Last-Event-ID} клиент получает пропущенные события,
+     * а если их уже не восстановить — событие {@code reset}: ветку нужно перечитать.
+     *
+     * @param postId      идентификатор поста
+     * @param lastEventId id последнего полученного события (браузер присылает его сам)
+     * @return поток событий
+     */
+    @GetMapping(path = "/post/{postId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable UUID postId,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        // Не через JPA: open-in-view держит соединение сессии до конца асинхронного запроса,
+        // то есть всё время подписки. JDBC без транзакции сразу возвращает соединение в пул.
+        Boolean exists = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM posts WHERE id = ?)", Boolean.class, postId);
+        if (!Boolean.TRUE.equals(exists)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Post not found");
+        }
+        return commentStream.subscribe(postId, lastEventId);
     }
 
     /**
@@ -103,12 +284,23 @@ public class CommentController {
      * @return комментарий
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getComment(@PathVariable UUID id) {
-        Comment comment = commentRepository.findById(id)
+    @Transactional(readOnly = true)
+    public ResponseEntity<UnuversalOkResponce<CommentResponse>> getComment(@PathVariable UUID id, WebRequest request) {
+        if (ResourceVersion.isConditional(request)) {
+            var current = commentRepository.findVersionById(id)
+                    .map(ResourceVersion::withoutLastModified)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Comment not found"));
+            if (current.notModified(request)) {
+                return current.notModifiedResponse();
+            }
+        }
+        CommentResponse comment = commentRepository.findResponseById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Comment not found"));
 
-        var ok = new UnuversalOkResponce(commentMapper.toDto(comment), "Комментарий получен", "200 OK");
-        return ResponseEntity.ok(ok.getResponse());
+        var ok = UnuversalOkResponce.ok(comment, "Комментарий получен");
+        var version = new ResourceVersion(comment.getEditedDate(), comment.getDeletedDate(), comment.getReplyCount())
+                .withoutLastModified();
+        return version.ok(ok);
     }
 
     /**
@@ -117,76 +309,124 @@ public class CommentController {
      *
      * @param id идентификатор комментария
      * @param request новый текст комментария
-     * @param userDetails текущий пользователь (автор)
+     * @param principal текущий пользователь (автор)
      * @return обновлённый комментарий или сообщение об удалении
      */
     @PutMapping("/update/{id}")
-    public ResponseEntity<Map<String, Object>> updateComment(@PathVariable UUID id,
+    public ResponseEntity<UnuversalOkResponce<CommentResponse>> updateComment(@PathVariable UUID id,
                                                              @RequestBody CommentRequest request,
-                                                             @AuthenticationPrincipal UserDetails userDetails) {
-        if (userDetails == null) {
+                                                             @AuthenticationPrincipal AuthUser principal) {
+        if (principal == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
         }
 
         Comment comment = commentRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Comment not found"));
 
-        User user = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-
-        if (!comment.getCreatedBy().getId().equals(user.getId())) {
+        if (!comment.getCreatedBy().getId().equals(principal.getId())) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can edit only your own comment");
         }
 
         // удаляем, если пусто
         if (request.getContent() == null || request.getContent().trim().isEmpty()) {
-            comment.setDeletedDate(LocalDateTime.now());
-            commentRepository.save(comment);
+            softDelete(comment);
+            CommentResponse dto = commentMapper.toDto(comment);
+            commentStream.publish(dto.getPostId(), CommentStreamHub.DELETED, dto);
 
-            var response = new UnuversalOkResponce(
-                    commentMapper.toDto(comment),
-                    "Комментарий был удалён, так как содержимое пустое.",
-                    "200 OK"
+            var response = UnuversalOkResponce.ok(
+                    dto,
+                    "Комментарий был удалён, так как содержимое пустое."
             );
-            return ResponseEntity.ok(response.getResponse());
+            return ResponseEntity.ok(response);
         }
 
         comment.setContent(request.getContent());
         comment.setEditedDate(LocalDateTime.now());
         Comment saved = commentRepository.save(comment);
+        CommentResponse dto = commentMapper.toDto(saved);
+        commentStream.publish(dto.getPostId(), CommentStreamHub.UPDATED, dto);
 
-        var ok = new UnuversalOkResponce(commentMapper.toDto(saved), "Комментарий обновлён", "200 OK");
-        return ResponseEntity.ok(ok.getResponse());
+        var ok = UnuversalOkResponce.ok(dto, "Комментарий обновлён");
+        return ResponseEntity.ok(ok);
     }
 
     /**
      * Удалить комментарий (может только автор).
      *
      * @param id идентификатор комментария
-     * @param userDetails текущий пользователь (автор)
+     * @param principal текущий пользователь (автор)
      * @return результат удаления
      */
     @DeleteMapping("/delete/{id}")
-    public ResponseEntity<Map<String, Object>> deleteComment(@PathVariable UUID id,
-                                                             @AuthenticationPrincipal UserDetails userDetails) {
-        if (userDetails == null) {
+    public ResponseEntity<UnuversalOkResponce<Void>> deleteComment(@PathVariable UUID id,
+                                                             @AuthenticationPrincipal AuthUser principal) {
+        if (principal == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
         }
 
         Comment comment = commentRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Comment not found"));
 
-        User user = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-
-        if (!comment.getCreatedBy().getId().equals(user.getId())) {
+        if (!comment.getCreatedBy().getId().equals(principal.getId())) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can delete only your own comment");
         }
 
+        softDelete(comment);
+        commentStream.publish(comment.getPost().getId(), CommentStreamHub.DELETED, commentMapper.toDto(comment));
+
+        var ok = UnuversalOkResponce.message("Комментарий помечен как удалён");
+        return ResponseEntity.ok(ok);
+    }
+
+    /**
+     * Версия ветки, собранная из уже загруженных комментариев —
+     * те же поля, что и в {@link CommentRepository#findThreadVersion(UUID)}.
+     */
+    private static ResourceVersion threadVersion(List<CommentResponse> comments) {
+        LocalDateTime lastEdited = null;
+        LocalDateTime lastDeleted = null;
+        long replies = 0;
+        for (CommentResponse c : comments) {
+            replies += c.getReplyCount();
+            if (c.getEditedDate() != null && (lastEdited == null || c.getEditedDate().isAfter(lastEdited))) {
+                lastEdited = c.getEditedDate();
+            }
+            if (c.getDeletedDate() != null && (lastDeleted == null || c.getDeletedDate().isAfter(lastDeleted))) {
+                lastDeleted = c.getDeletedDate();
+            }
+        }
+        return new ResourceVersion(lastEdited, lastDeleted, comments.size() + replies).withoutLastModified();
+    }
+
+    private static void checkPreview(int preview) {
+        if (preview < 0 || preview > MAX_REPLY_PREVIEW) {
+            throw new IllegalArgumentException("preview должен быть от 0 до " + MAX_REPLY_PREVIEW);
+        }
+    }
+
+    /** Превью ответов для всей страницы — одним запросом. */
+    private void withReplyPreviews(CursorPage<CommentThreadResponse> page, int preview) {
+        if (page.items().isEmpty()) {
+            return;
+        }
+        List<CommentReplyRow> rows = preview == 0
+                ? List.of()
+                : commentRepository.findReplyPreviewRows(
+                        page.items().stream().map(CommentThreadResponse::getId).toList(), preview + 1);
+        commentMapper.attachReplyPreviews(page.items(), rows, preview);
+    }
+
+    /**
+     * Пометить комментарий удалённым. Счётчики поста и родителя уменьшаются,
+     * только если комментарий ещё не был удалён.
+     */
+    private void softDelete(Comment comment) {
+        boolean wasActive = comment.getDeletedDate() == null;
         comment.setDeletedDate(LocalDateTime.now());
         commentRepository.save(comment);
-
-        var ok = new UnuversalOkResponce(null, "Комментарий помечен как удалён", "200 OK");
-        return ResponseEntity.ok(ok.getResponse());
+        if (wasActive) {
+            counters.commentDeleted(comment.getPost().getId(),
+                    comment.getParentComment() == null ? null : comment.getParentComment().getId());
+        }
     }
 }
@@ -0,0 +1,88 @@
+package org.example.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.export.NdjsonExporter;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.function.ToLongFunction;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Потоковая выгрузка данных в NDJSON.
+ * Ответ пишется по мере чтения из БД, поэтому память сервера не зависит от объёма выгрузки.
+ * Если клиент присылает {@code Accept-Encoding: gzip}, поток сжимается.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final NdjsonExporter exporter;
+
+    /**
+     * Выгрузить посты.
+     *
+     * @param deleted выгружать удалённые посты вместо активных
+     * @param login   имя автора; пусто или "admin" — все авторы
+     * @return NDJSON-поток постов
+     */
+    @GetMapping("/posts")
+    public ResponseEntity<StreamingResponseBody> exportPosts(@RequestParam(defaultValue = "false") boolean deleted,
+                                                             @RequestParam(required = false) String login,
+                                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        String username = login == null || login.isBlank() || login.equals("admin") ? null : login;
+        return stream("posts", acceptEncoding, out -> exporter.writePosts(out, deleted, username));
+    }
+
+    /**
+     * Выгрузить комментарии.
+     *
+     * @param postId идентификатор поста; пусто — все комментарии
+     * @return NDJSON-поток комментариев
+     */
+    @GetMapping("/comments")
+    public ResponseEntity<StreamingResponseBody> exportComments(@RequestParam(required = false) UUID postId,
+                                                                @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return stream("comments", acceptEncoding, out -> exporter.writeComments(out, postId));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String name, String acceptEncoding,
+                                                         ToLongFunction<OutputStream> export) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            long rows;
+            if (gzip) {
+                var compressed = new GZIPOutputStream(out, 8192);
+                rows = export.applyAsLong(compressed);
+                compressed.finish();
+            } else {
+                rows = export.applyAsLong(out);
+            }
+            log.info("Export {} finished: {} rows", name, rows);
+        };
+
+        var response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(name + ".ndjson").build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.config.PaginationProperties;
+import org.example.backend.dto.PostResponse;
+import org.example.backend.dto.UnuversalOkResponce;
+import org.example.backend.feed.Timeline;
+import org.example.backend.pagination.Cursor;
+import org.example.backend.security.AuthUser;
+import org.example.backend.web.PostFields;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Домашняя лента: посты авторов, на которых подписан текущий пользователь.
+ */
+@RestController
+@RequestMapping("/api/feed")
+@RequiredArgsConstructor
+public class FeedController {
+
+    private final Timeline timeline;
+    private final PaginationProperties pagination;
+
+    /**
+     * Получить страницу ленты (от новых постов к старым).
+     *
+     * @param principal текущий пользователь
+     * @param cursor    курсор из {@code nextCursor} предыдущей страницы; пусто — первая страница
+     * @param size      размер страницы
+     * @param fields    поля ответа через запятую ({@code id} отдаётся всегда)
+     * @param view      {@code list} — анонс {@code excerpt} вместо текста поста
+     * @param embed     {@code author} — встроить краткие данные автора
+     * @return страница постов и {@code nextCursor}
+     */
+    @GetMapping
+    @Transactional(readOnly = true)
+    public ResponseEntity<UnuversalOkResponce<List<PostResponse>>> getFeed(@AuthenticationPrincipal AuthUser principal,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false) Integer size,
+                                                       @RequestParam(required = false) String fields,
+                                                       @RequestParam(required = false) String view,
+                                                       @RequestParam(required = false) String embed) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+        var page = timeline.page(principal.getId(), Cursor.decode(cursor), pagination.resolve(size),
+                PostFields.parse(fields, view, embed));
+        var ok = UnuversalOkResponce.ok(page.items(), "Лента получена")
+                .with("nextCursor", page.nextCursor());
+        return ResponseEntity.ok(ok);
+    }
+}
@@ -2,26 +2,35 @@ package org.example.backend.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.backend.bulk.BulkWriter;
+import org.example.backend.config.PaginationProperties;
+import org.example.backend.dto.BulkItemResult;
 import org.example.backend.dto.PostRequest;
 import org.example.backend.dto.PostResponse;
+import org.example.backend.dto.PostSearchResponse;
 import org.example.backend.dto.UnuversalOkResponce;
 import org.example.backend.exception.ConflictException;
+import org.example.backend.feed.Timeline;
 import org.example.backend.mapper.PostMapper;
-import org.example.backend.model.Post;
 import org.example.backend.model.User;
+import org.example.backend.pagination.Cursor;
 import org.example.backend.repository.PostRepository;
-import org.example.backend.repository.UserRepository;
+import org.example.backend.security.AuthUser;
+import org.example.backend.security.CurrentUser;
+import org.example.backend.web.BatchIds;
+import org.example.backend.web.PostFields;
+import org.example.backend.web.ResourceVersion;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Контроллер для управления постами.
@@ -32,58 +41,168 @@ import java.util.stream.Collectors;
 public class PostController {
 
     private final PostRepository postRepo;
-    private final UserRepository userRepo;
     private final PostMapper postMapper;
+    private final PaginationProperties pagination;
+    private final BulkWriter bulkWriter;
+    private final Timeline timeline;
 
     /**
      * Создать новый пост.
      *
      * @param dto         данные поста
-     * @param userDetails текущий пользователь (автор поста)
+     * @param author      текущий пользователь (автор поста)
      * @return созданный пост
      */
     @PostMapping("/create")
-    public ResponseEntity<Map<String, Object>> create(@Valid @RequestBody PostRequest dto,
-                                                      @AuthenticationPrincipal UserDetails userDetails) {
-        if (userDetails == null) {
+    @Transactional
+    public ResponseEntity<UnuversalOkResponce<List<PostResponse>>> create(@Valid @RequestBody PostRequest dto,
+                                                      @CurrentUser User author) {
+        if (author == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
         }
-        User author = userRepo.findByUsername(userDetails.getUsername()).orElseThrow();
-        var saved = postRepo.save(postMapper.toEntity(dto, author));
-
-        var ok = new UnuversalOkResponce(
-                List.of(postMapper.toDto(saved)),
-                "Пост создан",
-                HttpStatus.CREATED.value() + " " + HttpStatus.CREATED.getReasonPhrase()
-        );
-        return ResponseEntity.ok(ok.getResponse());
+        // flush до раскладки: timeline_entries ссылается на posts внешним ключом
+        var saved = postRepo.saveAndFlush(postMapper.toEntity(dto, author));
+        // в той же транзакции: пост и записи в лентах подписчиков появляются вместе
+        timeline.fanOut(author.getId(), List.of(saved));
+
+        var ok = UnuversalOkResponce.of(HttpStatus.CREATED, List.of(postMapper.toDto(saved)), "Пост создан");
+        return ResponseEntity.ok(ok);
     }
 
     /**
-     * Получить список всех постов.
+     * Создать пачку постов (миграция контента). Элементы пишутся JDBC-батчами порциями;
+     * ошибка одного элемента не отменяет остальные.
      *
-     * @return список постов
+     * @param items     данные постов
+     * @param principal текущий пользователь (автор всех постов)
+     * @return результат по каждому элементу, {@code created} и {@code failed}
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<UnuversalOkResponce<List<BulkItemResult>>> createBulk(@RequestBody List<PostRequest> items,
+                                                          @AuthenticationPrincipal AuthUser principal) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+        return ResponseEntity.ok(BulkItemResult.summary(bulkWriter.createPosts(items, principal.getId())));
+    }
+
+    /**
+     * Получить страницу всех постов (от новых к старым).
+     *
+     * @param cursor курсор из {@code nextCursor} предыдущей страницы; пусто — первая страница
+     * @param size   размер страницы
+     * @param fields поля ответа через запятую ({@code id} отдаётся всегда)
+     * @param view   {@code list} — анонс {@code excerpt} вместо текста поста
+     * @param embed  {@code author} — встроить краткие данные автора
+     * @return страница постов и {@code nextCursor}
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAll() {
-        List<PostResponse> postsList = postRepo.findAll().stream().map(postMapper::toDto).collect(Collectors.toList());
-        var unuversalOkResponce = new UnuversalOkResponce(postsList, "Список постов получен", "200 OK");
-        return ResponseEntity.ok(unuversalOkResponce.getResponse());
+    @Transactional(readOnly = true)
+    public ResponseEntity<UnuversalOkResponce<List<PostResponse>>> getAll(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size,
+                                                      @RequestParam(required = false) String fields,
+                                                      @RequestParam(required = false) String view,
+                                                      @RequestParam(required = false) String embed) {
+        var page = postRepo.findPage(Cursor.decode(cursor), pagination.resolve(size),
+                PostFields.parse(fields, view, embed));
+        var unuversalOkResponce = UnuversalOkResponce.ok(page.items(), "Список постов получен")
+                .with("nextCursor", page.nextCursor());
+        return ResponseEntity.ok(unuversalOkResponce);
+    }
+
+    /**
+     * Полнотекстовый поиск по активным постам с ранжированием и подсветкой совпадений.
+     *
+     * @param q    поисковый запрос (поддерживаются кавычки, {@code or} и {@code -слово})
+     * @param page номер страницы, с нуля
+     * @param size размер страницы
+     * @return найденные посты и {@code nextPage}
+     */
+    @GetMapping("/search")
+    @Transactional(readOnly = true)
+    public ResponseEntity<UnuversalOkResponce<List<PostSearchResponse>>> search(@RequestParam String q,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(required = false) Integer size) {
+        if (q.isBlank()) {
+            throw new IllegalArgumentException("Пустой поисковый запрос");
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("page не может быть отрицательным");
+        }
+        int pageSize = pagination.resolve(size);
+        var rows = postRepo.search(q, pageSize + 1, page * pageSize);
+
+        var ok = UnuversalOkResponce.ok(
+                rows.stream().limit(pageSize).map(postMapper::toSearchDto).toList(),
+                "Результаты поиска получены"
+        ).with("nextPage", rows.size() > pageSize ? page + 1 : null);
+        return ResponseEntity.ok(ok);
+    }
+
+    /**
+     * Получить несколько постов по id одним запросом.
+     *
+     * @param ids    идентификаторы постов (через запятую или повтором параметра)
+     * @param fields поля ответа через запятую ({@code id} отдаётся всегда)
+     * @param view   {@code list} — анонс {@code excerpt} вместо текста поста
+     * @param embed  {@code author} — встроить краткие данные автора
+     * @return найденные посты в порядке {@code ids} и {@code missing} — id, которых нет
+     */
+    @GetMapping("/batch")
+    @Transactional(readOnly = true)
+    public ResponseEntity<UnuversalOkResponce<List<PostResponse>>> getBatch(@RequestParam List<UUID> ids,
+                                                        @RequestParam(required = false) String fields,
+                                                        @RequestParam(required = false) String view,
+                                                        @RequestParam(required = false) String embed) {
+        var batch = BatchIds.of(ids, pagination.getMaxSize());
+        var rows = postRepo.findResponsesByIds(batch.ids(), PostFields.parse(fields, view, embed));
+
+        var ok = UnuversalOkResponce.ok(batch.ordered(rows, PostResponse::getId), "Посты получены")
+                .with("missing", batch.missing(rows, PostResponse::getId));
+        return ResponseEntity.ok(ok);
     }
 
     /**
      * Получить пост по id.
      *
-     * @param id идентификатор поста
+     * @param id     идентификатор поста
+     * @param fields поля ответа через запятую ({@code id} отдаётся всегда)
+     * @param view   {@code list} — анонс {@code excerpt} вместо текста поста
+     * @param embed  {@code author} — встроить краткие данные автора
      * @return найденный пост или ошибка
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getById(@PathVariable UUID id) {
-        var post = postRepo.findById(id)
+    @Transactional(readOnly = true)
+    public ResponseEntity<UnuversalOkResponce<List<PostResponse>>> getById(@PathVariable UUID id,
+                                                       @RequestParam(required = false) String fields,
+                                                       @RequestParam(required = false) String view,
+                                                       @RequestParam(required = false) String embed,
+                                                       WebRequest request) {
+        PostFields postFields = PostFields.parse(fields, view, embed);
+        if (postFields.withAuthor() || postFields.has(PostFields.EXCERPT)) {
+            // версия поста не учитывает правки профиля автора, а анонс читается выборкой колонок,
+            // где меток версии может не быть, — такой ответ без ETag и 304
+            var post = postRepo.findResponsesByIds(List.of(id), postFields).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Post with id %s not found", id)));
+            return ResponseEntity.ok(UnuversalOkResponce.ok(List.of(post), "Пост получен"));
+        }
+        if (ResourceVersion.isConditional(request)) {
+            var current = postRepo.findVersionById(id)
+                    .map(ResourceVersion::withoutLastModified)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Post with id %s not found", id)));
+            if (current.notModified(request)) {
+                return current.notModifiedResponse();
+            }
+        }
+        var post = postRepo.findResponseById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Post with id %s not found", id)));
 
-        var unuversalOkResponce = new UnuversalOkResponce(List.of(postMapper.toDto(post)), "Пост получен", "200 OK");
-        return ResponseEntity.ok(unuversalOkResponce.getResponse());
+        var unuversalOkResponce = UnuversalOkResponce.ok(List.of(post), "Пост получен");
+        // удаление комментария меняет только commentCount — сравнение по ETag, без Last-Modified
+        var version = new ResourceVersion(post.getUpdatedDate(), post.getLastCommentAt(), post.getCommentCount())
+                .withoutLastModified();
+        return version.ok(unuversalOkResponce);
     }
 
     /**
@@ -95,7 +214,7 @@ public class PostController {
      * @return обновлённый пост
      */
     @PutMapping("update/{id}")
-    public ResponseEntity<Map<String, Object>> update(@PathVariable UUID id,
+    public ResponseEntity<UnuversalOkResponce<List<PostResponse>>> update(@PathVariable UUID id,
                                                       @Valid @RequestBody PostRequest dto,
                                                       @AuthenticationPrincipal UserDetails userDetails) {
         if (userDetails == null) {
@@ -107,8 +226,8 @@ public class PostController {
                     post.setContent(dto.getContent());
                     post.setUpdatedDate(java.time.LocalDateTime.now());
                     var saved = postRepo.save(post);
-                    var ok = new UnuversalOkResponce(List.of(postMapper.toDto(saved)), "Пост обновлён", "200 OK");
-                    return ResponseEntity.ok(ok.getResponse());
+                    var ok = UnuversalOkResponce.ok(List.of(postMapper.toDto(saved)), "Пост обновлён");
+                    return ResponseEntity.ok(ok);
                 })
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Post with id %s not found", id)));
     }
@@ -120,52 +239,73 @@ public class PostController {
      * @return результат удаления
      */
     @DeleteMapping("delete/{id}")
-    public ResponseEntity<Map<String, Object>> delete(@PathVariable UUID id) {
+    @Transactional
+    public ResponseEntity<UnuversalOkResponce<Void>> delete(@PathVariable UUID id) {
         if (!postRepo.existsById(id)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Post with id %s not found", id));
         }
         postRepo.deleteById(id);
-        var ok = new UnuversalOkResponce(null, "Пост удалён", "200 OK");
-        return ResponseEntity.ok(ok.getResponse());
+        // в той же транзакции: пост помечается удалённым и уходит из лент вместе
+        timeline.removePost(id);
+        var ok = UnuversalOkResponce.message("Пост удалён");
+        return ResponseEntity.ok(ok);
     }
 
     /**
-     * Получить список удалённых постов.
+     * Получить страницу удалённых постов.
      *
-     * @param login имя пользователя или "admin"
-     * @return список удалённых постов
+     * @param login  имя пользователя или "admin"
+     * @param cursor курсор из {@code nextCursor} предыдущей страницы; пусто — первая страница
+     * @param size   размер страницы
+     * @param fields поля ответа через запятую ({@code id} отдаётся всегда)
+     * @param view   {@code list} — анонс {@code excerpt} вместо текста поста
+     * @param embed  {@code author} — встроить краткие данные автора
+     * @return страница удалённых постов и {@code nextCursor}
      */
     @GetMapping("/deleted")
-    public ResponseEntity<Map<String, Object>> getDeletedPosts(@RequestParam String login) {
-        List<Post> posts = login.equals("admin")
-                ? postRepo.findAllDeleted()
-                : postRepo.findDeletedByUsername(login);
-
-        var ok = new UnuversalOkResponce(
-                posts.stream().map(postMapper::toDto).collect(Collectors.toList()),
-                "Удалённые посты получены",
-                "200 OK"
-        );
-        return ResponseEntity.ok(ok.getResponse());
+    @Transactional(readOnly = true)
+    public ResponseEntity<UnuversalOkResponce<List<PostResponse>>> getDeletedPosts(@RequestParam String login,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer size,
+                                                               @RequestParam(required = false) String fields,
+                                                               @RequestParam(required = false) String view,
+                                                               @RequestParam(required = false) String embed) {
+        var page = postRepo.findDeletedPage(login.equals("admin") ? null : login,
+                Cursor.decode(cursor), pagination.resolve(size), PostFields.parse(fields, view, embed));
+
+        var ok = UnuversalOkResponce.ok(
+                page.items(),
+                "Удалённые посты получены"
+        ).with("nextCursor", page.nextCursor());
+        return ResponseEntity.ok(ok);
     }
 
     /**
-     * Получить список активных (не удалённых) постов.
+     * Получить страницу активных (не удалённых) постов.
      *
-     * @param login имя пользователя или "admin"
-     * @return список активных постов
+     * @param login  имя пользователя или "admin"
+     * @param cursor курсор из {@code nextCursor} предыдущей страницы; пусто — первая страница
+     * @param size   размер страницы
+     * @param fields поля ответа через запятую ({@code id} отдаётся всегда)
+     * @param view   {@code list} — анонс {@code excerpt} вместо текста поста
+     * @param embed  {@code author} — встроить краткие данные автора
+     * @return страница активных постов и {@code nextCursor}
      */
     @GetMapping("/active")
-    public ResponseEntity<Map<String, Object>> getActivePosts(@RequestParam String login) {
-        List<Post> posts = login.equals("admin")
-                ? postRepo.findAllActive()
-                : postRepo.findActiveByUsername(login);
-
-        var ok = new UnuversalOkResponce(
-                posts.stream().map(postMapper::toDto).collect(Collectors.toList()),
-                "Активные посты получены",
-                "200 OK"
-        );
-        return ResponseEntity.ok(ok.getResponse());
+    @Transactional(readOnly = true)
+    public ResponseEntity<UnuversalOkResponce<List<PostResponse>>> getActivePosts(@RequestParam String login,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size,
+                                                              @RequestParam(required = false) String fields,
+                                                              @RequestParam(required = false) String view,
+                                                              @RequestParam(required = false) String embed) {
+        var page = postRepo.findActivePage(login.equals("admin") ? null : login,
+                Cursor.decode(cursor), pagination.resolve(size), PostFields.parse(fields, view, embed));
+
+        var ok = UnuversalOkResponce.ok(
+                page.items(),
+                "Активные посты получены"
+        ).with("nextCursor", page.nextCursor());
+        return ResponseEntity.ok(ok);
     }
 }
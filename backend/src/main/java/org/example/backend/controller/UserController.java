@@ -2,24 +2,32 @@ package org.example.backend.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.backend.availability.TakenNames;
+import org.example.backend.config.PaginationProperties;
+import org.example.backend.dto.AvailabilityResponse;
 import org.example.backend.dto.UnuversalOkResponce;
 import org.example.backend.dto.UserRequestDto;
 import org.example.backend.dto.UserResponseDto;
 import org.example.backend.exception.ConflictException;
+import org.example.backend.feed.FollowGraph;
 import org.example.backend.mapper.UserMapper;
 import org.example.backend.model.User;
 import org.example.backend.repository.UserRepository;
+import org.example.backend.security.AuthUser;
+import org.example.backend.web.BatchIds;
+import org.example.backend.web.ResourceVersion;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Контроллер для управления пользователями.
@@ -30,27 +38,55 @@ import java.util.stream.Collectors;
 public class UserController {
 
     private final UserRepository repo;
+    private final PasswordEncoder passwordEncoder;
+    private final FollowGraph followGraph;
+    private final PaginationProperties pagination;
+    private final TakenNames takenNames;
 
     /**
-     * Создать нового пользователя.
+     * Создать нового пользователя. Занятость username и email проверяют уникальные ограничения
+     * таблицы — один INSERT без предварительных запросов.
      *
      * @param dto данные пользователя
-     * @return созданный пользователь
+     * @return созданный пользователь; 409, если username или email заняты
      */
     @PostMapping("/create")
-    public ResponseEntity<Map<String, Object>> create(@Valid @RequestBody UserRequestDto dto) {
-        if (repo.existsByEmail(dto.getEmail()))
-            throw new ConflictException("Этот email уже зарегистрирован");
-        if (repo.existsByUsername(dto.getUsername()))
-            throw new ConflictException("Этот username уже занят");
-
-        User saved = repo.save(UserMapper.toEntity(dto));
-        var ok = new UnuversalOkResponce(
-                UserMapper.toDto(saved),
-                "Пользователь создан",
-                HttpStatus.CREATED.value() + " " + HttpStatus.CREATED.getReasonPhrase()
-        );
-        return ResponseEntity.status(HttpStatus.CREATED).body(ok.getResponse());
+    public ResponseEntity<UnuversalOkResponce<UserResponseDto>> create(@Valid @RequestBody UserRequestDto dto) {
+        User saved;
+        try {
+            saved = repo.save(UserMapper.toEntity(dto, passwordEncoder));
+        } catch (DataIntegrityViolationException e) {
+            throw conflict(dto, e);
+        }
+        takenNames.add(saved.getUsername(), saved.getEmail());
+
+        var ok = UnuversalOkResponce.of(HttpStatus.CREATED, UserMapper.toDto(saved), "Пользователь создан");
+        return ResponseEntity.status(HttpStatus.CREATED).body(ok);
+    }
+
+    /**
+     * Проверить, свободны ли username и/или email (для формы регистрации).
+     * Свободные значения отвечаются из памяти, в БД уходят только возможно занятые.
+     * Ответ справочный: окончательно занятость проверяется при создании пользователя.
+     *
+     * @param username проверяемый username
+     * @param email    проверяемый email
+     * @return {@code true} для свободных значений; непереданные параметры в ответ не попадают
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<UnuversalOkResponce<AvailabilityResponse>> availability(@RequestParam(required = false) String username,
+                                                                                  @RequestParam(required = false) String email) {
+        boolean checkUsername = username != null && !username.isBlank();
+        boolean checkEmail = email != null && !email.isBlank();
+        if (!checkUsername && !checkEmail) {
+            throw new IllegalArgumentException("Нужен username или email");
+        }
+        var result = new AvailabilityResponse(
+                checkUsername ? !takenNames.isUsernameTaken(username) : null,
+                checkEmail ? !takenNames.isEmailTaken(email) : null);
+
+        var ok = UnuversalOkResponce.ok(result, "Занятость проверена");
+        return ResponseEntity.ok(ok);
     }
 
     /**
@@ -59,14 +95,29 @@ public class UserController {
      * @return список пользователей
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAll() {
-        List<UserResponseDto> list = repo.findAll()
-                .stream()
-                .map(UserMapper::toDto)
-                .collect(Collectors.toList());
-
-        var ok = new UnuversalOkResponce(list, "Список пользователей получен", "200 OK");
-        return ResponseEntity.ok(ok.getResponse());
+    @Transactional(readOnly = true)
+    public ResponseEntity<UnuversalOkResponce<List<UserResponseDto>>> getAll() {
+        List<UserResponseDto> list = repo.findAllResponses();
+
+        var ok = UnuversalOkResponce.ok(list, "Список пользователей получен");
+        return ResponseEntity.ok(ok);
+    }
+
+    /**
+     * Получить несколько пользователей по id одним запросом — например, всех авторов страницы постов.
+     *
+     * @param ids идентификаторы пользователей (через запятую или повтором параметра)
+     * @return найденные пользователи в порядке {@code ids} и {@code missing} — id, которых нет
+     */
+    @GetMapping("/batch")
+    @Transactional(readOnly = true)
+    public ResponseEntity<UnuversalOkResponce<List<UserResponseDto>>> getBatch(@RequestParam List<UUID> ids) {
+        var batch = BatchIds.of(ids, pagination.getMaxSize());
+        var rows = repo.findResponsesByIds(batch.ids());
+
+        var ok = UnuversalOkResponce.ok(batch.ordered(rows, UserResponseDto::getId), "Пользователи получены")
+                .with("missing", batch.missing(rows, UserResponseDto::getId));
+        return ResponseEntity.ok(ok);
     }
 
     /**
@@ -76,12 +127,20 @@ public class UserController {
      * @return пользователь
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getById(@PathVariable UUID id) {
-        var user = repo.findById(id)
+    @Transactional(readOnly = true)
+    public ResponseEntity<UnuversalOkResponce<UserResponseDto>> getById(@PathVariable UUID id, WebRequest request) {
+        if (ResourceVersion.isConditional(request)) {
+            var current = repo.findVersionById(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("User with id %s not found", id)));
+            if (current.notModified(request)) {
+                return current.notModifiedResponse();
+            }
+        }
+        var user = repo.findResponseById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("User with id %s not found", id)));
 
-        var ok = new UnuversalOkResponce(UserMapper.toDto(user), "Пользователь получен", "200 OK");
-        return ResponseEntity.ok(ok.getResponse());
+        var ok = UnuversalOkResponce.ok(user, "Пользователь получен");
+        return new ResourceVersion(user.getUpdatedAt(), user.getCreatedAt(), 0).ok(ok);
     }
 
     /**
@@ -92,14 +151,17 @@ public class UserController {
      * @return обновлённый пользователь
      */
     @PutMapping("/update/{id}")
-    public ResponseEntity<Map<String, Object>> update(@PathVariable UUID id,
+    public ResponseEntity<UnuversalOkResponce<UserResponseDto>> update(@PathVariable UUID id,
                                                       @Valid @RequestBody UserRequestDto userRequestDto) {
         return repo.findById(id)
                 .map(user -> {
-                    UserMapper.update(user, userRequestDto);
+                    String oldUsername = user.getUsername();
+                    String oldEmail = user.getEmail();
+                    UserMapper.update(user, userRequestDto, passwordEncoder);
                     var saved = repo.save(user);
-                    var ok = new UnuversalOkResponce(UserMapper.toDto(saved), "Пользователь обновлён", "200 OK");
-                    return ResponseEntity.ok(ok.getResponse());
+                    takenNames.changed(oldUsername, oldEmail, saved.getUsername(), saved.getEmail());
+                    var ok = UnuversalOkResponce.ok(UserMapper.toDto(saved), "Пользователь обновлён");
+                    return ResponseEntity.ok(ok);
                 })
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("User with id %s not found", id)));
     }
@@ -107,22 +169,25 @@ public class UserController {
     /**
      * Частичное обновление текущего пользователя.
      *
-     * @param userDetails текущий пользователь
+     * @param principal текущий пользователь
      * @param userRequestDto новые данные
      * @return обновлённый пользователь
      */
     @PatchMapping("/me")
-    public ResponseEntity<Map<String, Object>> patchMe(@AuthenticationPrincipal UserDetails userDetails,
+    public ResponseEntity<UnuversalOkResponce<UserResponseDto>> patchMe(@AuthenticationPrincipal AuthUser principal,
                                                        @RequestBody UserRequestDto userRequestDto) {
-        if (userDetails == null) {
+        if (principal == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
         }
-        User user = repo.findByUsername(userDetails.getUsername()).orElseThrow();
-        UserMapper.patch(user, userRequestDto);
+        User user = repo.findById(principal.getId()).orElseThrow();
+        String oldUsername = user.getUsername();
+        String oldEmail = user.getEmail();
+        UserMapper.patch(user, userRequestDto, passwordEncoder);
         var saved = repo.save(user);
+        takenNames.changed(oldUsername, oldEmail, saved.getUsername(), saved.getEmail());
 
-        var ok = new UnuversalOkResponce(UserMapper.toDto(saved), "Профиль обновлён", "200 OK");
-        return ResponseEntity.ok(ok.getResponse());
+        var ok = UnuversalOkResponce.ok(UserMapper.toDto(saved), "Профиль обновлён");
+        return ResponseEntity.ok(ok);
     }
 
     /**
@@ -132,12 +197,63 @@ public class UserController {
      * @return сообщение об удалении
      */
     @DeleteMapping("/delete/{id}")
-    public ResponseEntity<Map<String, Object>> delete(@PathVariable UUID id) {
+    public ResponseEntity<UnuversalOkResponce<List<UserResponseDto>>> delete(@PathVariable UUID id) {
         if (!repo.existsById(id)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("User with id %s not found", id));
         }
         repo.deleteById(id);
-        var ok = new UnuversalOkResponce(List.of(), "Пользователь удалён", "200 OK");
-        return ResponseEntity.ok(ok.getResponse());
+        takenNames.removed();
+        return ResponseEntity.ok(UnuversalOkResponce.ok(List.of(), "Пользователь удалён"));
+    }
+
+    /**
+     * Подписаться на пользователя: его посты начнут попадать в ленту {@code /api/feed}.
+     *
+     * @param id        на кого подписаться
+     * @param principal текущий пользователь
+     * @return результат; {@code created=false}, если подписка уже была
+     */
+    @PostMapping("/{id}/follow")
+    public ResponseEntity<UnuversalOkResponce<Void>> follow(@PathVariable UUID id,
+                                                           @AuthenticationPrincipal AuthUser principal) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+        if (!repo.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("User with id %s not found", id));
+        }
+        boolean created = followGraph.follow(principal.getId(), id);
+        return ResponseEntity.ok(UnuversalOkResponce.message("Подписка оформлена").with("created", created));
+    }
+
+    /**
+     * Отписаться от пользователя: его посты уходят из ленты.
+     *
+     * @param id        от кого отписаться
+     * @param principal текущий пользователь
+     * @return результат; {@code removed=false}, если подписки не было
+     */
+    @DeleteMapping("/{id}/follow")
+    public ResponseEntity<UnuversalOkResponce<Void>> unfollow(@PathVariable UUID id,
+                                                             @AuthenticationPrincipal AuthUser principal) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+        boolean removed = followGraph.unfollow(principal.getId(), id);
+        return ResponseEntity.ok(UnuversalOkResponce.message("Подписка отменена").with("removed", removed));
+    }
+
+    /**
+     * Что именно занято, выясняется только здесь, на редком пути отказа.
+     * Если ни username, ни email не заняты, нарушено другое ограничение — исключение уходит дальше.
+     */
+    private RuntimeException conflict(UserRequestDto dto, DataIntegrityViolationException e) {
+        if (repo.existsByEmail(dto.getEmail())) {
+            return new ConflictException("Этот email уже зарегистрирован");
+        }
+        if (repo.existsByUsername(dto.getUsername())) {
+            return new ConflictException("Этот username уже занят");
+        }
+        return e;
     }
 }
@@ -0,0 +1,126 @@
+package org.example.backend.counter;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.model.Post;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Буфер изменений денормализованных счётчиков ({@code posts.comment_count}, {@code posts.last_comment_at},
+ * {@code comments.reply_count}).
+ * <p>
+ * Контроллеры только накапливают дельты в памяти, а раз в {@code app.counters.flush-interval}
+ * они сливаются в БД одним JDBC-батчем — по одному UPDATE на строку за интервал,
+ * так что популярный пост не превращается в горячую строку с очередью блокировок.
+ * Счётчики отстают от реальности не больше чем на интервал сброса.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentCounterBuffer {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ConcurrentHashMap<UUID, PostDelta> postDeltas = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Long> replyDeltas = new ConcurrentHashMap<>();
+
+    private record PostDelta(long comments, LocalDateTime lastCommentAt) {
+        PostDelta plus(PostDelta other) {
+            LocalDateTime last = lastCommentAt == null || (other.lastCommentAt != null && other.lastCommentAt.isAfter(lastCommentAt))
+                    ? other.lastCommentAt
+                    : lastCommentAt;
+            return new PostDelta(comments + other.comments, last);
+        }
+    }
+
+    /** Учесть новый комментарий к посту (и ответ родителю, если он есть). */
+    public void commentCreated(UUID postId, UUID parentCommentId, LocalDateTime createdAt) {
+        postDeltas.merge(postId, new PostDelta(1, createdAt), PostDelta::plus);
+        if (parentCommentId != null) {
+            replyDeltas.merge(parentCommentId, 1L, Long::sum);
+        }
+    }
+
+    /** Учесть мягкое удаление комментария. */
+    public void commentDeleted(UUID postId, UUID parentCommentId) {
+        postDeltas.merge(postId, new PostDelta(-1, null), PostDelta::plus);
+        if (parentCommentId != null) {
+            replyDeltas.merge(parentCommentId, -1L, Long::sum);
+        }
+    }
+
+    /**
+     * Слить накопленные дельты в БД. Каждая запись забирается из буфера атомарно ({@code remove}),
+     * поэтому инкременты, пришедшие во время сброса, попадут в следующий сброс.
+     * Если запись в БД не удалась, дельты возвращаются в буфер.
+     */
+    @Scheduled(fixedDelayString = "${app.counters.flush-interval:PT1S}")
+    public void flush() {
+        Map<UUID, PostDelta> posts = drain(postDeltas);
+        Map<UUID, Long> replies = drain(replyDeltas);
+        if (posts.isEmpty() && replies.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!posts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(
+                            "UPDATE posts SET comment_count = comment_count + ?, " +
+                                    "last_comment_at = GREATEST(last_comment_at, CAST(? AS timestamp)) WHERE id = ?",
+                            posts.entrySet().stream().map(e -> new Object[]{
+                                    e.getValue().comments(),
+                                    e.getValue().lastCommentAt() == null ? null : Timestamp.valueOf(e.getValue().lastCommentAt()),
+                                    e.getKey()
+                            }).toList());
+                }
+                if (!replies.isEmpty()) {
+                    jdbcTemplate.batchUpdate(
+                            "UPDATE comments SET reply_count = reply_count + ? WHERE id = ?",
+                            replies.entrySet().stream().map(e -> new Object[]{e.getValue(), e.getKey()}).toList());
+                }
+            });
+            // UPDATE в обход Hibernate — закэшированные посты со старыми счётчиками нужно выбросить
+            posts.keySet().forEach(id -> entityManagerFactory.getCache().evict(Post.class, id));
+            log.debug("Сброшены счётчики: постов {}, комментариев {}", posts.size(), replies.size());
+        } catch (RuntimeException e) {
+            posts.forEach((id, delta) -> postDeltas.merge(id, delta, PostDelta::plus));
+            replies.forEach((id, delta) -> replyDeltas.merge(id, delta, Long::sum));
+            log.warn("Не удалось сбросить счётчики, повтор при следующем сбросе", e);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Забрать все записи из буфера, упорядочив по id, — одинаковый порядок
+     * обновления строк исключает взаимоблокировки между экземплярами приложения.
+     */
+    private static <V> Map<UUID, V> drain(ConcurrentHashMap<UUID, V> buffer) {
+        Map<UUID, V> drained = new TreeMap<>();
+        for (UUID id : buffer.keySet()) {
+            V delta = buffer.remove(id);
+            if (delta != null) {
+                drained.put(id, delta);
+            }
+        }
+        return drained;
+    }
+}
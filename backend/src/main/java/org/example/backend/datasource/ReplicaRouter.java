@@ -0,0 +1,128 @@
+package org.example.backend.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.config.ReplicaProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Решает, можно ли текущему запросу к БД читать из реплики.
+ * <p>
+ * Реплика используется, только если одновременно:
+ * <ul>
+ *     <li>HTTP-запрос — чтение (GET/HEAD), и его автор не писал в последние {@code read-your-writes};</li>
+ *     <li>транзакция помечена {@code @Transactional(readOnly = true)};</li>
+ *     <li>реплика доступна и отстаёт не больше {@code max-lag}.</li>
+ * </ul>
+ * Всё остальное — записи, фоновые задачи, потоковая выгрузка — идёт в основную БД.
+ */
+@Slf4j
+public class ReplicaRouter {
+
+    /** Разрешение на реплику для HTTP-запроса текущего потока (ставит {@link ReplicaRoutingInterceptor}). */
+    private static final ThreadLocal<Boolean> REQUEST_ALLOWS_REPLICA = new ThreadLocal<>();
+
+    private final DataSource replica;
+    private final ReplicaProperties properties;
+    /** Пользователи, писавшие недавно; запись живёт {@code read-your-writes}. */
+    private final Cache<UUID, Boolean> recentWriters;
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+
+    private volatile boolean available = true;
+    private volatile double lagSeconds;
+
+    public ReplicaRouter(DataSource replica, ReplicaProperties properties, MeterRegistry registry) {
+        this.replica = replica;
+        this.properties = properties;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getReadYourWrites())
+                .maximumSize(100_000)
+                .build();
+        this.primaryRoutes = routes(registry, "primary");
+        this.replicaRoutes = routes(registry, "replica");
+        Gauge.builder("datasource.replica.lag", this, r -> r.lagSeconds)
+                .description("Replica replay lag")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("datasource.replica.available", this, r -> r.available ? 1 : 0)
+                .description("Whether reads are routed to the replica")
+                .register(registry);
+    }
+
+    static void allowReplica(boolean allowed) {
+        REQUEST_ALLOWS_REPLICA.set(allowed);
+    }
+
+    static void clear() {
+        REQUEST_ALLOWS_REPLICA.remove();
+    }
+
+    /** Читать ли из реплики соединение, которое берётся сейчас. */
+    boolean shouldUseReplica() {
+        return available
+                && Boolean.TRUE.equals(REQUEST_ALLOWS_REPLICA.get())
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /** Пользователь писал недавно — его чтения пока идут в основную БД. */
+    boolean recentlyWrote(UUID userId) {
+        return recentWriters.getIfPresent(userId) != null;
+    }
+
+    void wrote(UUID userId) {
+        recentWriters.put(userId, Boolean.TRUE);
+    }
+
+    void routed(boolean toReplica) {
+        (toReplica ? replicaRoutes : primaryRoutes).increment();
+    }
+
+    /** Реплика не дала соединение — до следующей удачной проверки читаем из основной БД. */
+    void replicaFailed(SQLException e) {
+        if (available) {
+            log.warn("Реплика недоступна, чтение переключено на основную БД: {}", e.getMessage());
+        }
+        available = false;
+    }
+
+    /** Проверить доступность и отставание реплики. */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.check-interval:PT5S}")
+    public void checkReplica() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(properties.getLagQuery())) {
+            lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+            boolean healthy = lagSeconds * 1000 <= properties.getMaxLag().toMillis();
+            if (healthy != available) {
+                if (healthy) {
+                    log.info("Реплика доступна (отставание {} с), чтение возвращено на неё", lagSeconds);
+                } else {
+                    log.warn("Реплика отстаёт на {} с, чтение переключено на основную БД", lagSeconds);
+                }
+            }
+            available = healthy;
+        } catch (SQLException e) {
+            replicaFailed(e);
+        }
+    }
+
+    private static Counter routes(MeterRegistry registry, String target) {
+        return Counter.builder("datasource.routing")
+                .description("Connections handed out by the read/write router")
+                .tag("target", target)
+                .register(registry);
+    }
+}
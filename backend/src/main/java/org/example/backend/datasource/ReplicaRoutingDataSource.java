@@ -0,0 +1,53 @@
+package org.example.backend.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Отдаёт соединение основной БД или реплики по решению {@link ReplicaRouter}.
+ * Если реплика не дала соединение, запрос не падает, а уходит в основную БД.
+ * <p>
+ * Оборачивается в {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * физическое соединение берётся при первом SQL, когда признак readOnly транзакции уже выставлен.
+ */
+@RequiredArgsConstructor
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaRouter router;
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    /** Как {@code AbstractRoutingDataSource}: учётные данные передаются выбранному пулу. */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(target -> target.getConnection(username, password));
+    }
+
+    private Connection connect(ConnectionSource source) throws SQLException {
+        if (router.shouldUseReplica()) {
+            try {
+                Connection connection = source.from(replica);
+                router.routed(true);
+                return connection;
+            } catch (SQLException e) {
+                router.replicaFailed(e);
+            }
+        }
+        router.routed(false);
+        return source.from(primary);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection from(DataSource target) throws SQLException;
+    }
+}
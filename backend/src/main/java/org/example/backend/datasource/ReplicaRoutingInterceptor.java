@@ -0,0 +1,64 @@
+package org.example.backend.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.security.AuthUser;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.UUID;
+
+/**
+ * Разрешает реплику читающим HTTP-запросам и запоминает, кто из пользователей писал,
+ * чтобы его следующие чтения видели собственные изменения.
+ * <p>
+ * Запись отмечается до обработки запроса: ответ уходит клиенту раньше {@code afterCompletion},
+ * и следующее чтение иначе могло бы успеть на реплику. После обработки отметка обновляется —
+ * окно {@code read-your-writes} отсчитывается от конца записи.
+ */
+@RequiredArgsConstructor
+public class ReplicaRoutingInterceptor implements AsyncHandlerInterceptor {
+
+    private final ReplicaRouter router;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        UUID userId = currentUserId();
+        if (isRead(request)) {
+            ReplicaRouter.allowReplica(userId == null || !router.recentlyWrote(userId));
+        } else if (userId != null) {
+            router.wrote(userId);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReplicaRouter.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        try {
+            UUID userId = currentUserId();
+            if (!isRead(request) && userId != null) {
+                router.wrote(userId);
+            }
+        } finally {
+            ReplicaRouter.clear();
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+    }
+
+    private static UUID currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof AuthUser principal
+                ? principal.getId()
+                : null;
+    }
+}
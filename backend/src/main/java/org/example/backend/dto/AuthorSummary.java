@@ -0,0 +1,13 @@
+package org.example.backend.dto;
+
+import java.util.UUID;
+
+/**
+ * Краткие данные автора, встраиваемые в пост по {@code ?embed=author}.
+ *
+ * @param id        идентификатор пользователя
+ * @param username  имя пользователя
+ * @param avatarUrl ссылка на аватар (может быть {@code null})
+ */
+public record AuthorSummary(UUID id, String username, String avatarUrl) {
+}
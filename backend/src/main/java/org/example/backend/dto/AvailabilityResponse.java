@@ -0,0 +1,10 @@
+package org.example.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Свободны ли username и email; непроверенное значение в ответ не попадает.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AvailabilityResponse(Boolean username, Boolean email) {
+}
@@ -0,0 +1,19 @@
+package org.example.backend.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Элемент пакетной загрузки комментариев.
+ * Родителем может быть существующий комментарий ({@code parentCommentId})
+ * или комментарий из этого же пакета, стоящий раньше ({@code parentRef}).
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class BulkCommentRequest extends CommentRequest {
+    /** Ключ элемента, выбранный клиентом, — на него ссылаются {@code parentRef} и результаты. */
+    private String ref;
+
+    /** {@code ref} родительского комментария из этого же пакета. */
+    private String parentRef;
+}
@@ -0,0 +1,31 @@
+package org.example.backend.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Результат одного элемента пакетной загрузки.
+ *
+ * @param index позиция элемента в запросе
+ * @param ref   ключ элемента от клиента (если был)
+ * @param id    идентификатор созданной записи или {@code null} при ошибке
+ * @param error причина ошибки или {@code null} при успехе
+ */
+public record BulkItemResult(int index, String ref, UUID id, String error) {
+
+    public static BulkItemResult created(int index, String ref, UUID id) {
+        return new BulkItemResult(index, ref, id, null);
+    }
+
+    public static BulkItemResult failed(int index, String ref, String error) {
+        return new BulkItemResult(index, ref, null, error);
+    }
+
+    /** Ответ на пакетную загрузку: результаты по элементам и итоги {@code created} и {@code failed}. */
+    public static UnuversalOkResponce<List<BulkItemResult>> summary(List<BulkItemResult> results) {
+        long failed = results.stream().filter(r -> r.error() != null).count();
+        return UnuversalOkResponce.ok(results, "Пакет обработан")
+                .with("created", results.size() - failed)
+                .with("failed", failed);
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.backend.dto;
+
+/**
+ * Статистика региона кэша второго уровня.
+ *
+ * @param region   имя региона
+ * @param hits     попадания
+ * @param misses   промахи
+ * @param puts     записи в кэш
+ * @param size     число элементов в памяти ({@code -1}, если провайдер не сообщает)
+ * @param hitRatio доля попаданий среди обращений
+ */
+public record CacheRegionStats(String region, long hits, long misses, long puts, long size, double hitRatio) {
+
+    public static CacheRegionStats of(String region, long hits, long misses, long puts, long size) {
+        long requests = hits + misses;
+        return new CacheRegionStats(region, hits, misses, puts, Math.max(size, -1),
+                requests == 0 ? 0 : (double) hits / requests);
+    }
+}
@@ -1,10 +1,12 @@
 package org.example.backend.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
+@NoArgsConstructor
 public class CommentResponse {
     private UUID id;
     private String content;
@@ -15,4 +17,21 @@ public class CommentResponse {
     private LocalDateTime editedDate;
     private LocalDateTime deletedDate;
     private UUID parentCommentId;
+    private long replyCount;
+
+    /** Конструктор для JPQL-проекций ({@code SELECT new ...}). */
+    public CommentResponse(UUID id, String content, UUID postId, UUID createdBy, String createdByName,
+                           LocalDateTime createdDate, LocalDateTime editedDate, LocalDateTime deletedDate,
+                           UUID parentCommentId, long replyCount) {
+        this.id = id;
+        this.content = content;
+        this.postId = postId;
+        this.createdBy = createdBy;
+        this.createdByName = createdByName;
+        this.createdDate = createdDate;
+        this.editedDate = editedDate;
+        this.deletedDate = deletedDate;
+        this.parentCommentId = parentCommentId;
+        this.replyCount = replyCount;
+    }
 }
@@ -0,0 +1,16 @@
+package org.example.backend.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+public class CommentSearchResponse {
+    private UUID id;
+    private UUID postId;
+    private String snippet; // фрагмент текста, совпадения обёрнуты в <mark>
+    private float rank;
+    private UUID createdBy;
+    private LocalDateTime createdDate;
+}
@@ -0,0 +1,33 @@
+package org.example.backend.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Комментарий постраничной ветки: сам комментарий и первые ответы на него.
+ * Остальные ответы догружаются через {@code /api/comments/{id}/replies?cursor=repliesCursor}.
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class CommentThreadResponse extends CommentResponse {
+    /** Первые ответы (по времени), не больше {@code preview}. */
+    private List<CommentResponse> replies = new ArrayList<>();
+    private boolean hasMoreReplies;
+    /** Курсор продолжения ответов после {@link #replies}; {@code null}, если ответов больше нет. */
+    private String repliesCursor;
+
+    /** Конструктор для JPQL-проекций ({@code SELECT new ...}). */
+    public CommentThreadResponse(UUID id, String content, UUID postId, UUID createdBy, String createdByName,
+                                 LocalDateTime createdDate, LocalDateTime editedDate, LocalDateTime deletedDate,
+                                 UUID parentCommentId, long replyCount) {
+        super(id, content, postId, createdBy, createdByName, createdDate, editedDate, deletedDate,
+                parentCommentId, replyCount);
+    }
+}
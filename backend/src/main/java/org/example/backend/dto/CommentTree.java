@@ -0,0 +1,12 @@
+package org.example.backend.dto;
+
+import java.util.List;
+
+/**
+ * Дерево комментариев поста.
+ *
+ * @param comments       комментарии верхнего уровня с вложенными ответами
+ * @param hiddenComments сколько комментариев верхнего уровня не попало в ответ из-за лимита на уровень
+ */
+public record CommentTree(List<CommentTreeResponse> comments, int hiddenComments) {
+}
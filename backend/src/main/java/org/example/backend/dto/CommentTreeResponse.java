@@ -0,0 +1,19 @@
+package org.example.backend.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Узел дерева комментариев: сам комментарий и его ответы.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class CommentTreeResponse extends CommentResponse {
+    private int depth;
+    private List<CommentTreeResponse> replies = new ArrayList<>();
+    /** Сколько ответов не попало в {@link #replies} из-за лимита на уровень. */
+    private int hiddenReplies;
+}
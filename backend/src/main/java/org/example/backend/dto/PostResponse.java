@@ -1,16 +1,44 @@
 package org.example.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.backend.web.PostFields;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
+@NoArgsConstructor
+@JsonFilter(PostFields.FILTER)
 public class PostResponse {
     private UUID id;
     private String title;
     private String content;
+    /** Анонс вместо {@code content} в списках ({@code ?view=list}, {@code ?fields=excerpt}). */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String excerpt;
     private LocalDateTime createdDate;
     private LocalDateTime updatedDate;
     private UUID authorId;
+    private long commentCount;
+    private LocalDateTime lastCommentAt;
+    /** Только при {@code ?embed=author}. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private AuthorSummary author;
+
+    /** Конструктор для JPQL-проекций ({@code SELECT new ...}). */
+    public PostResponse(UUID id, String title, String content,
+                        LocalDateTime createdDate, LocalDateTime updatedDate, UUID authorId,
+                        long commentCount, LocalDateTime lastCommentAt) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.createdDate = createdDate;
+        this.updatedDate = updatedDate;
+        this.authorId = authorId;
+        this.commentCount = commentCount;
+        this.lastCommentAt = lastCommentAt;
+    }
 }
@@ -0,0 +1,16 @@
+package org.example.backend.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+public class PostSearchResponse {
+    private UUID id;
+    private String title;
+    private String snippet; // фрагмент текста, совпадения обёрнуты в <mark>
+    private float rank;
+    private LocalDateTime createdDate;
+    private UUID authorId;
+}
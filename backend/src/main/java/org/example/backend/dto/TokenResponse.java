@@ -0,0 +1,14 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+public class TokenResponse {
+    private String token;
+    private String tokenType;
+    private Instant expiresAt;
+}
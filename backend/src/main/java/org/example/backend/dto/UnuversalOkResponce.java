@@ -1,40 +1,176 @@
 package org.example.backend.dto;
 
-import lombok.Data;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.http.HttpStatus;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-@Data
-public class UnuversalOkResponce {
+/**
+ * Конверт ответа API: {@code {"data": ..., "message": ..., "error": ..., "status": "200 OK", ...доп. поля}}.
+ * <p>
+ * Поля {@code data}, {@code message}, {@code error}, {@code status} пишутся, только если заданы;
+ * дополнительные поля ({@link #with}) — всегда, в том числе {@code null}.
+ * Сериализуется собственным {@link Serializer} с фиксированным порядком полей:
+ * имена полей и строки статусов закодированы один раз, {@code data} пишется
+ * сериализатором Jackson прямо в поток ответа, без промежуточного {@code Map}.
+ *
+ * @param <T> тип полезной нагрузки
+ */
+@JsonSerialize(using = UnuversalOkResponce.Serializer.class)
+public final class UnuversalOkResponce<T> {
 
-    private Map<String, Object> response;
+    private final T data;
+    private final String message;
+    private final String error;
+    private final HttpStatus status;
+    /** Сообщение — константа контроллера (кэшируется закодированным), а не текст исключения. */
+    private final boolean constantMessage;
+    private Map<String, Object> extra;
 
-    public UnuversalOkResponce(Object data,
-                               String message,
-                               String status,
-                               String error) {
-        this.response = createHashMap(data, message, status, error);
+    private UnuversalOkResponce(T data, String message, String error, HttpStatus status, boolean constantMessage) {
+        this.data = data;
+        this.message = message;
+        this.error = error;
+        this.status = status;
+        this.constantMessage = constantMessage;
     }
 
-    public UnuversalOkResponce(Object data, String message) {
-        this.response = createHashMap(data, message, null, null);
+    /** Успешный ответ со статусом {@code 200 OK}. */
+    public static <T> UnuversalOkResponce<T> ok(T data, String message) {
+        return new UnuversalOkResponce<>(data, message, null, HttpStatus.OK, true);
     }
 
-    public UnuversalOkResponce(Object data, String message, String status) {
-        this.response = createHashMap(data, message, status, null);
+    /** Успешный ответ без данных, только сообщение. */
+    public static UnuversalOkResponce<Void> message(String message) {
+        return new UnuversalOkResponce<>(null, message, null, HttpStatus.OK, true);
     }
 
-    private Map<String, Object> createHashMap(Object data,
-                                              String message,
-                                              String status,
-                                              String error) {
-        Map<String, Object> response = new HashMap<>();
-        if (data != null) response.put("data", data);
-        if (message != null) response.put("message", message);
-        if (error != null) response.put("error", error);
-        if (status != null) response.put("status", status);
-        return response;
+    /** Ответ с данными и произвольным статусом (например, {@code 201 Created}). */
+    public static <T> UnuversalOkResponce<T> of(HttpStatus status, T data, String message) {
+        return new UnuversalOkResponce<>(data, message, null, status, true);
     }
 
+    /** Ответ об ошибке: {@code error} — стандартная фраза статуса. */
+    public static UnuversalOkResponce<Void> error(HttpStatus status, String message) {
+        return error(status, message, status.getReasonPhrase());
+    }
+
+    /** Ответ об ошибке с собственным текстом {@code error}. */
+    public static UnuversalOkResponce<Void> error(HttpStatus status, String message, String error) {
+        return new UnuversalOkResponce<>(null, message, error, status, false);
+    }
+
+    /**
+     * Добавить в ответ дополнительное поле конверта (например, {@code nextCursor}).
+     */
+    public UnuversalOkResponce<T> with(String key, Object value) {
+        if (extra == null) {
+            extra = new LinkedHashMap<>(4);
+        }
+        extra.put(key, value);
+        return this;
+    }
+
+    public T getData() {
+        return data;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /** Статус в виде строки {@code "200 OK"}, как он попадает в JSON. */
+    public String getStatus() {
+        return status == null ? null : STATUS_STRINGS.get(status).getValue();
+    }
+
+    /** Дополнительное поле конверта или {@code null}. */
+    public Object getExtra(String key) {
+        return extra == null ? null : extra.get(key);
+    }
+
+    // ===== Сериализация =====
+
+    private static final SerializableString DATA = new SerializedString("data");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString ERROR = new SerializedString("error");
+    private static final SerializableString STATUS = new SerializedString("status");
+
+    /** "200 OK", "201 Created", ... — закодированы один раз на все ответы. */
+    private static final Map<HttpStatus, SerializableString> STATUS_STRINGS = new EnumMap<>(HttpStatus.class);
+
+    static {
+        for (HttpStatus status : HttpStatus.values()) {
+            STATUS_STRINGS.put(status, new SerializedString(status.value() + " " + status.getReasonPhrase()));
+        }
+    }
+
+    /**
+     * Закодированные сообщения успешных ответов — это константы контроллеров, поэтому кэш
+     * быстро перестаёт расти. Тексты ошибок бывают динамическими и пишутся как есть.
+     */
+    private static final int MESSAGE_CACHE_LIMIT = 512;
+    private static final ConcurrentHashMap<String, SerializableString> MESSAGES = new ConcurrentHashMap<>();
+
+    private static SerializableString encoded(String message) {
+        SerializableString cached = MESSAGES.get(message);
+        if (cached == null && MESSAGES.size() < MESSAGE_CACHE_LIMIT) {
+            cached = MESSAGES.computeIfAbsent(message, SerializedString::new);
+        }
+        return cached;
+    }
+
+    static final class Serializer extends StdSerializer<UnuversalOkResponce<?>> {
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Serializer() {
+            super((Class) UnuversalOkResponce.class);
+        }
+
+        @Override
+        public void serialize(UnuversalOkResponce<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            if (value.data != null) {
+                gen.writeFieldName(DATA);
+                provider.defaultSerializeValue(value.data, gen);
+            }
+            if (value.message != null) {
+                gen.writeFieldName(MESSAGE);
+                SerializableString encoded = value.constantMessage ? encoded(value.message) : null;
+                if (encoded != null) {
+                    gen.writeString(encoded);
+                } else {
+                    gen.writeString(value.message);
+                }
+            }
+            if (value.error != null) {
+                gen.writeFieldName(ERROR);
+                gen.writeString(value.error);
+            }
+            if (value.status != null) {
+                gen.writeFieldName(STATUS);
+                gen.writeString(STATUS_STRINGS.get(value.status));
+            }
+            if (value.extra != null) {
+                for (Map.Entry<String, Object> entry : value.extra.entrySet()) {
+                    gen.writeFieldName(entry.getKey());
+                    provider.defaultSerializeValue(entry.getValue(), gen);
+                }
+            }
+            gen.writeEndObject();
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package org.example.backend.dto;
 
+import org.example.backend.model.Gender;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -16,7 +18,21 @@ public class UserResponseDto {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
-
+    public UserResponseDto() {}
+
+    /** Конструктор для JPQL-проекций ({@code SELECT new ...}). */
+    public UserResponseDto(UUID id, String username, String email, String bio, String avatarUrl,
+                           LocalDate birthDate, Gender gender, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.bio = bio;
+        this.avatarUrl = avatarUrl;
+        this.birthDate = birthDate;
+        this.gender = gender == null ? null : gender.name();
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
 
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
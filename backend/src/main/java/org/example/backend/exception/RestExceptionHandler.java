@@ -2,11 +2,15 @@ package org.example.backend.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
 import org.example.backend.dto.UnuversalOkResponce;
+import org.example.backend.ratelimit.RateLimitExceededException;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -19,10 +23,6 @@ import java.util.stream.Collectors;
 @RestControllerAdvice
 public class RestExceptionHandler {
 
-    private static String s(HttpStatus st) {
-        return st.value() + " " + st.getReasonPhrase();
-    }
-
     // 400: ошибки валидации (@Valid)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<?> handleValidationException(MethodArgumentNotValidException ex) {
@@ -33,8 +33,7 @@ public class RestExceptionHandler {
                 .collect(Collectors.toList());
 
         String message = "Ошибка валидации: " + String.join("; ", errors);
-        var body = new UnuversalOkResponce(null, message, s(HttpStatus.BAD_REQUEST), "Validation failed")
-                .getResponse();
+        var body = UnuversalOkResponce.error(HttpStatus.BAD_REQUEST, message, "Validation failed");
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
     }
 
@@ -42,7 +41,7 @@ public class RestExceptionHandler {
     @ExceptionHandler(ConflictException.class)
     public ResponseEntity<?> handleConflict(ConflictException ex) {
         HttpStatus st = ex.getStatus();
-        var body = new UnuversalOkResponce(null, ex.getMessage(), s(st), st.getReasonPhrase()).getResponse();
+        var body = UnuversalOkResponce.error(st, ex.getMessage());
         return ResponseEntity.status(st).body(body);
     }
 
@@ -52,7 +51,7 @@ public class RestExceptionHandler {
         HttpStatus st = HttpStatus.resolve(ex.getStatusCode().value());
         if (st == null) st = HttpStatus.INTERNAL_SERVER_ERROR;
         String msg = ex.getReason() == null ? st.getReasonPhrase() : ex.getReason();
-        var body = new UnuversalOkResponce(null, msg, s(st), st.getReasonPhrase()).getResponse();
+        var body = UnuversalOkResponce.error(st, msg);
         return ResponseEntity.status(st).body(body);
     }
 
@@ -60,43 +59,61 @@ public class RestExceptionHandler {
     @ExceptionHandler(NoSuchElementException.class)
     public ResponseEntity<?> handleNoSuch(NoSuchElementException ex) {
         var st = HttpStatus.NOT_FOUND;
-        var body = new UnuversalOkResponce(null, "Ресурс не найден", s(st), st.getReasonPhrase()).getResponse();
+        var body = UnuversalOkResponce.error(st, "Ресурс не найден");
         return ResponseEntity.status(st).body(body);
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<?> handleIllegalArg(IllegalArgumentException ex) {
         var st = HttpStatus.BAD_REQUEST;
-        var body = new UnuversalOkResponce(null, ex.getMessage(), s(st), st.getReasonPhrase()).getResponse();
+        var body = UnuversalOkResponce.error(st, ex.getMessage());
         return ResponseEntity.status(st).body(body);
     }
 
     @ExceptionHandler(AuthenticationException.class)
     public ResponseEntity<?> handleAuth(AuthenticationException ex) {
         var st = HttpStatus.UNAUTHORIZED;
-        var body = new UnuversalOkResponce(null, "Пользователь не авторизован", s(st), st.getReasonPhrase()).getResponse();
+        var body = UnuversalOkResponce.error(st, "Пользователь не авторизован");
         return ResponseEntity.status(st).body(body);
     }
 
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<?> handleDenied(AccessDeniedException ex) {
         var st = HttpStatus.FORBIDDEN;
-        var body = new UnuversalOkResponce(null, "Доступ запрещён", s(st), st.getReasonPhrase()).getResponse();
+        var body = UnuversalOkResponce.error(st, "Доступ запрещён");
         return ResponseEntity.status(st).body(body);
     }
 
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<?> handleIntegrity(DataIntegrityViolationException ex) {
         var st = HttpStatus.CONFLICT;
-        var body = new UnuversalOkResponce(null, "Нарушение целостности данных", s(st), st.getReasonPhrase()).getResponse();
+        var body = UnuversalOkResponce.error(st, "Нарушение целостности данных");
         return ResponseEntity.status(st).body(body);
     }
 
+    // 429: клиент исчерпал лимит запросов (RateLimitFilter)
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<?> handleRateLimit(RateLimitExceededException ex) {
+        var st = HttpStatus.TOO_MANY_REQUESTS;
+        var body = UnuversalOkResponce.error(st, ex.getMessage());
+        return ResponseEntity.status(st)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfter().toSeconds()))
+                .body(body);
+    }
+
+    // 503: не дождались соединения из пула (пул Hikari — ограничитель нагрузки) или БД недоступна
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<?> handleUnavailable(Exception ex) {
+        var st = HttpStatus.SERVICE_UNAVAILABLE;
+        var body = UnuversalOkResponce.error(st, "Сервис перегружен, повторите запрос позже");
+        return ResponseEntity.status(st).header(HttpHeaders.RETRY_AFTER, "1").body(body);
+    }
+
     // 500 — последнее правило
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleAny(Exception ex) {
         var st = HttpStatus.INTERNAL_SERVER_ERROR;
-        var body = new UnuversalOkResponce(null, "Внутренняя ошибка сервера", s(st), st.getReasonPhrase()).getResponse();
+        var body = UnuversalOkResponce.error(st, "Внутренняя ошибка сервера");
         return ResponseEntity.status(st).body(body);
     }
 }
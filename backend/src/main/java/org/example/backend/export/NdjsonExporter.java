@@ -0,0 +1,95 @@
+package org.example.backend.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.backend.repository.CommentRepository;
+import org.example.backend.repository.PostRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Потоковая выгрузка постов и комментариев в NDJSON (один JSON-объект на строку).
+ * <p>
+ * Строки читаются из БД курсором (fetch size в запросах репозиториев) прямо в DTO-проекции —
+ * сущности не создаются и контекст персистентности не растёт, — и сразу пишутся в выходной поток.
+ * Память не зависит от размера таблицы: в каждый момент в ней одна пачка строк и буфер Jackson.
+ */
+@Component
+public class NdjsonExporter {
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter writer;
+
+    public NdjsonExporter(PostRepository postRepository,
+                          CommentRepository commentRepository,
+                          PlatformTransactionManager transactionManager,
+                          ObjectMapper objectMapper) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        // PostgreSQL отдаёт строки порциями только внутри транзакции; readOnly — без flush и снимков сущностей
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // без flush после каждой строки и без закрытия чужого потока — им управляет вызывающий
+        this.writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Выгрузить посты.
+     *
+     * @param deleted  удалённые посты вместо активных
+     * @param username автор или {@code null} — все авторы
+     * @return число выгруженных строк
+     */
+    public long writePosts(OutputStream out, boolean deleted, String username) {
+        return write(out, () -> postRepository.streamForExport(deleted, username));
+    }
+
+    /**
+     * Выгрузить комментарии.
+     *
+     * @param postId пост или {@code null} — все комментарии
+     * @return число выгруженных строк
+     */
+    public long writeComments(OutputStream out, UUID postId) {
+        return write(out, () -> postId == null
+                ? commentRepository.streamAll()
+                : commentRepository.streamByPostId(postId));
+    }
+
+    private long write(OutputStream out, Supplier<? extends Stream<?>> rows) {
+        Long written = readOnlyTransaction.execute(status -> {
+            long count = 0;
+            try (Stream<?> stream = rows.get(); SequenceWriter sequence = writer.writeValues(out)) {
+                var it = stream.iterator();
+                while (it.hasNext()) {
+                    sequence.write(it.next());
+                    count++;
+                }
+                sequence.flush();
+                if (count > 0) {
+                    out.write('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+        return written == null ? 0 : written;
+    }
+}
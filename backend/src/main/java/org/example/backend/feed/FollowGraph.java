@@ -0,0 +1,58 @@
+package org.example.backend.feed;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Подписки между пользователями ({@code follows}) и счётчик подписчиков ({@code users.follower_count}).
+ * Подписка и отписка сразу правят ленту подписчика через {@link Timeline}.
+ */
+@Component
+@RequiredArgsConstructor
+public class FollowGraph {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Timeline timeline;
+
+    /**
+     * Подписать {@code followerId} на {@code followeeId}.
+     *
+     * @return {@code false}, если подписка уже была
+     */
+    @Transactional
+    public boolean follow(UUID followerId, UUID followeeId) {
+        if (followerId.equals(followeeId)) {
+            throw new IllegalArgumentException("Нельзя подписаться на себя");
+        }
+        int inserted = jdbcTemplate.update(
+                "INSERT INTO follows (follower_id, followee_id) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                followerId, followeeId);
+        if (inserted == 0) {
+            return false;
+        }
+        jdbcTemplate.update("UPDATE users SET follower_count = follower_count + 1 WHERE id = ?", followeeId);
+        timeline.backfill(followerId, followeeId);
+        return true;
+    }
+
+    /**
+     * Отписать {@code followerId} от {@code followeeId}.
+     *
+     * @return {@code false}, если подписки не было
+     */
+    @Transactional
+    public boolean unfollow(UUID followerId, UUID followeeId) {
+        int deleted = jdbcTemplate.update(
+                "DELETE FROM follows WHERE follower_id = ? AND followee_id = ?", followerId, followeeId);
+        if (deleted == 0) {
+            return false;
+        }
+        jdbcTemplate.update("UPDATE users SET follower_count = follower_count - 1 WHERE id = ?", followeeId);
+        timeline.evict(followerId, followeeId);
+        return true;
+    }
+}
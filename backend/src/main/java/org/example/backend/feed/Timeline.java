@@ -0,0 +1,204 @@
+package org.example.backend.feed;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.config.FeedProperties;
+import org.example.backend.dto.AuthorSummary;
+import org.example.backend.dto.PostResponse;
+import org.example.backend.model.Post;
+import org.example.backend.pagination.Cursor;
+import org.example.backend.pagination.CursorPage;
+import org.example.backend.web.PostFields;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Домашние ленты пользователей ({@code timeline_entries}).
+ * <p>
+ * Новый пост при публикации раскладывается по лентам подписчиков автора (fan-out on write),
+ * и чтение ленты — один проход по индексу. У авторов с огромным числом подписчиков
+ * ({@code app.feed.fanout-threshold}) раскладка стоила бы слишком дорого, поэтому их посты
+ * помечаются {@code fanned_out = false} и подмешиваются при чтении (fan-out on read) прямо из {@code posts}.
+ * Решение записано в посте, а не вычисляется по текущему числу подписчиков: когда автор опускается
+ * ниже порога, его прежние посты не пропадают из лент, а новые просто начинают раскладываться.
+ * Удалённые посты убирает из лент {@link #removePost}; чтение их тоже отсекает.
+ */
+@Component
+@RequiredArgsConstructor
+public class Timeline {
+
+    private static final String FAN_OUT = """
+            INSERT INTO timeline_entries (user_id, created_date, post_id, author_id)
+            SELECT f.follower_id, :createdDate, :postId, :authorId
+            FROM follows f
+            WHERE f.followee_id = :authorId
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String BACKFILL = """
+            INSERT INTO timeline_entries (user_id, created_date, post_id, author_id)
+            SELECT :followerId, p.created_date, p.id, p.author_id
+            FROM posts p
+            WHERE p.author_id = :followeeId AND p.deleted_date IS NULL AND p.created_date IS NOT NULL
+              AND p.fanned_out
+            ORDER BY p.created_date DESC, p.id DESC
+            LIMIT :limit
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String MARK_NOT_FANNED_OUT = "UPDATE posts SET fanned_out = false WHERE id IN (:ids)";
+
+    /**
+     * Страница ленты: материализованные записи плюс не разложенные посты авторов, на которых подписан
+     * пользователь, — каждая ветка уже ограничена размером страницы, слияние — по ключу курсора.
+     * UNION убирает пост, попавший в обе ветки (посты, разложенные до V6__post_fanned_out.sql).
+     * Курсор — сравнение кортежей: оно становится границей диапазона индекса в каждой ветке.
+     */
+    private static final String PAGE_TEMPLATE = """
+            SELECT p.id, p.title, p.created_date, p.updated_date, p.author_id,
+                   p.comment_count, p.last_comment_at%s
+            FROM (
+                (SELECT te.post_id, te.created_date
+                 FROM timeline_entries te
+                 WHERE te.user_id = :userId
+                   AND (te.created_date, te.post_id) < (:date, :id)
+                 ORDER BY te.created_date DESC, te.post_id DESC
+                 LIMIT :limit)
+                UNION
+                (SELECT hp.id, hp.created_date
+                 FROM follows f
+                 CROSS JOIN LATERAL (
+                     SELECT p.id, p.created_date
+                     FROM posts p
+                     WHERE p.author_id = f.followee_id AND p.deleted_date IS NULL AND NOT p.fanned_out
+                       AND (p.created_date, p.id) < (:date, :id)
+                     ORDER BY p.created_date DESC, p.id DESC
+                     LIMIT :limit
+                 ) hp
+                 WHERE f.follower_id = :userId)
+            ) t
+            JOIN posts p ON p.id = t.post_id AND p.deleted_date IS NULL
+            %s
+            ORDER BY t.created_date DESC, t.post_id DESC
+            LIMIT :limit
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final FeedProperties properties;
+
+    /**
+     * Разложить новые посты автора по лентам его подписчиков, а у автора выше порога — пометить,
+     * что посты читаются из {@code posts} при чтении ленты.
+     * Вызывать в транзакции, которая создаёт посты, после их flush — тогда лента и посты фиксируются вместе.
+     * Значения берутся из сущностей, а не из таблицы.
+     */
+    public void fanOut(UUID authorId, List<Post> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        if (followerCount(authorId) > properties.getFanoutThreshold()) {
+            jdbc.update(MARK_NOT_FANNED_OUT, new MapSqlParameterSource("ids", posts.stream().map(Post::getId).toList()));
+            return;
+        }
+        SqlParameterSource[] batch = posts.stream()
+                .map(post -> new MapSqlParameterSource()
+                        .addValue("createdDate", post.getCreatedDate())
+                        .addValue("postId", post.getId())
+                        .addValue("authorId", authorId))
+                .toArray(SqlParameterSource[]::new);
+        jdbc.batchUpdate(FAN_OUT, batch);
+    }
+
+    /**
+     * Страница ленты пользователя после курсора, от новых постов к старым.
+     *
+     * Текст поста ({@code content}) читается, только если он нужен в ответе; автор —
+     * при {@code ?embed=author}, тем же запросом с JOIN по первичному ключу.
+     */
+    public CursorPage<PostResponse> page(UUID userId, Cursor cursor, int size, PostFields fields) {
+        var params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("date", cursor.createdDate())
+                .addValue("id", cursor.id())
+                .addValue("limit", size + 1);
+        List<PostResponse> rows = jdbc.query(pageSql(fields), params, (rs, i) -> toResponse(rs, fields));
+        return CursorPage.of(rows, size, post -> new Cursor(post.getCreatedDate(), post.getId()));
+    }
+
+    /** После подписки: последние разложенные посты автора сразу появляются в ленте (остальные подмешиваются при чтении). */
+    void backfill(UUID followerId, UUID followeeId) {
+        jdbc.update(BACKFILL, new MapSqlParameterSource()
+                .addValue("followerId", followerId)
+                .addValue("followeeId", followeeId)
+                .addValue("limit", properties.getFollowBackfill()));
+    }
+
+    /**
+     * Убрать удалённый пост из всех домашних лент. Вызывать в транзакции удаления поста.
+     * Через JDBC, а не нативным запросом Hibernate: тот без явных query spaces сбрасывает
+     * все регионы кэша второго уровня.
+     */
+    public void removePost(UUID postId) {
+        jdbc.update("DELETE FROM timeline_entries WHERE post_id = :postId", new MapSqlParameterSource("postId", postId));
+    }
+
+    /** После отписки: посты автора уходят из ленты. */
+    void evict(UUID followerId, UUID followeeId) {
+        jdbc.update("DELETE FROM timeline_entries WHERE user_id = :followerId AND author_id = :followeeId",
+                new MapSqlParameterSource()
+                        .addValue("followerId", followerId)
+                        .addValue("followeeId", followeeId));
+    }
+
+    private long followerCount(UUID userId) {
+        Long count = jdbc.queryForObject("SELECT follower_count FROM users WHERE id = :id",
+                new MapSqlParameterSource("id", userId), Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private static String pageSql(PostFields fields) {
+        StringBuilder columns = new StringBuilder();
+        if (fields.has(PostFields.CONTENT)) {
+            columns.append(", p.content");
+        }
+        if (fields.has(PostFields.EXCERPT)) {
+            columns.append(", p.excerpt");
+        }
+        if (fields.withAuthor()) {
+            columns.append(", u.username AS author_username, u.avatar_url AS author_avatar_url");
+        }
+        return PAGE_TEMPLATE.formatted(columns, fields.withAuthor() ? "JOIN users u ON u.id = p.author_id" : "");
+    }
+
+    private static PostResponse toResponse(ResultSet rs, PostFields fields) throws SQLException {
+        var post = new PostResponse(
+                rs.getObject("id", UUID.class),
+                rs.getString("title"),
+                fields.has(PostFields.CONTENT) ? rs.getString("content") : null,
+                toLocal(rs.getTimestamp("created_date")),
+                toLocal(rs.getTimestamp("updated_date")),
+                rs.getObject("author_id", UUID.class),
+                rs.getLong("comment_count"),
+                toLocal(rs.getTimestamp("last_comment_at")));
+        if (fields.has(PostFields.EXCERPT)) {
+            post.setExcerpt(rs.getString("excerpt"));
+        }
+        if (fields.withAuthor()) {
+            post.setAuthor(new AuthorSummary(post.getAuthorId(),
+                    rs.getString("author_username"), rs.getString("author_avatar_url")));
+        }
+        return post;
+    }
+
+    private static LocalDateTime toLocal(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -1,22 +1,148 @@
 package org.example.backend.mapper;
 
 import org.example.backend.dto.CommentResponse;
+import org.example.backend.dto.CommentSearchResponse;
+import org.example.backend.dto.CommentThreadResponse;
+import org.example.backend.dto.CommentTree;
+import org.example.backend.dto.CommentTreeResponse;
 import org.example.backend.model.Comment;
+import org.example.backend.pagination.Cursor;
+import org.example.backend.repository.CommentReplyRow;
+import org.example.backend.repository.CommentSearchRow;
+import org.example.backend.repository.CommentTreeRow;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 @Component
 public class CommentMapper {
     public CommentResponse toDto(Comment comment) {
+        return toDto(comment, comment.getCreatedBy().getUsername());
+    }
+
+    /**
+     * То же, что {@link #toDto(Comment)}, но имя автора берётся из вызывающего кода —
+     * чтобы не инициализировать ссылку на автора, полученную через {@code getReferenceById}.
+     */
+    public CommentResponse toDto(Comment comment, String createdByName) {
         CommentResponse dto = new CommentResponse();
         dto.setId(comment.getId());
         dto.setContent(comment.getContent());
         dto.setPostId(comment.getPost().getId());
         dto.setCreatedBy(comment.getCreatedBy().getId());
-        dto.setCreatedByName(comment.getCreatedBy().getUsername());
+        dto.setCreatedByName(createdByName);
         dto.setCreatedDate(comment.getCreatedDate());
         dto.setEditedDate(comment.getEditedDate());
         dto.setDeletedDate(comment.getDeletedDate());
         dto.setParentCommentId(comment.getParentComment() != null ? comment.getParentComment().getId() : null);
+        dto.setReplyCount(comment.getReplyCount());
+        return dto;
+    }
+
+    public CommentSearchResponse toSearchDto(CommentSearchRow row) {
+        CommentSearchResponse dto = new CommentSearchResponse();
+        dto.setId(row.getId());
+        dto.setPostId(row.getPostId());
+        dto.setSnippet(row.getSnippet());
+        dto.setRank(row.getRank());
+        dto.setCreatedBy(row.getCreatedBy());
+        dto.setCreatedDate(row.getCreatedDate());
+        return dto;
+    }
+
+    /**
+     * Собрать дерево из строк {@link org.example.backend.repository.CommentRepository#findThreadRows}
+     * за один проход: строки идут по возрастанию глубины, так что родитель уже собран к моменту появления ответа.
+     * Ответы сверх {@code perLevel} отброшены запросом; их число — {@code siblings} строки за вычетом показанных.
+     *
+     * @param rows     строки ветки, упорядоченные по глубине и дате
+     * @param perLevel максимум ответов на одного родителя (и комментариев верхнего уровня)
+     */
+    public CommentTree toTree(List<CommentTreeRow> rows, int perLevel) {
+        Map<UUID, CommentTreeResponse> nodes = new HashMap<>(rows.size() * 2);
+        List<CommentTreeResponse> roots = new ArrayList<>();
+        int hiddenRoots = 0;
+
+        for (CommentTreeRow row : rows) {
+            int hidden = (int) Math.max(0, row.getSiblings() - perLevel);
+            CommentTreeResponse node = toTreeNode(row);
+            if (row.getParentCommentId() == null) {
+                roots.add(node);
+                hiddenRoots = hidden;
+            } else {
+                CommentTreeResponse parent = nodes.get(row.getParentCommentId());
+                parent.getReplies().add(node);
+                parent.setHiddenReplies(hidden);
+            }
+            nodes.put(node.getId(), node);
+        }
+        return new CommentTree(roots, hiddenRoots);
+    }
+
+    /**
+     * Разложить превью ответов по комментариям страницы ветки.
+     * Строк на родителя выбрано на одну больше {@code preview} — лишняя только сигнализирует,
+     * что ответы есть и дальше; тогда {@code repliesCursor} указывает на последний показанный.
+     *
+     * @param nodes   комментарии страницы
+     * @param rows    ответы из {@link org.example.backend.repository.CommentRepository#findReplyPreviewRows}
+     * @param preview сколько ответов показать у каждого комментария
+     */
+    public void attachReplyPreviews(List<CommentThreadResponse> nodes, List<CommentReplyRow> rows, int preview) {
+        Map<UUID, List<CommentResponse>> byParent = new HashMap<>();
+        for (CommentReplyRow row : rows) {
+            byParent.computeIfAbsent(row.getParentCommentId(), id -> new ArrayList<>()).add(toDto(row));
+        }
+        for (CommentThreadResponse node : nodes) {
+            List<CommentResponse> replies = byParent.getOrDefault(node.getId(), List.of());
+            if (preview == 0) {
+                // превью не просили — о наличии ответов говорит счётчик
+                node.setHasMoreReplies(node.getReplyCount() > 0);
+                continue;
+            }
+            boolean more = replies.size() > preview;
+            List<CommentResponse> shown = more ? replies.subList(0, preview) : replies;
+            node.setReplies(new ArrayList<>(shown));
+            node.setHasMoreReplies(more);
+            if (more) {
+                CommentResponse last = shown.get(shown.size() - 1);
+                node.setRepliesCursor(new Cursor(last.getCreatedDate(), last.getId()).encode());
+            }
+        }
+    }
+
+    private CommentResponse toDto(CommentReplyRow row) {
+        CommentResponse dto = new CommentResponse();
+        dto.setId(row.getId());
+        dto.setContent(row.getContent());
+        dto.setPostId(row.getPostId());
+        dto.setCreatedBy(row.getCreatedBy());
+        dto.setCreatedByName(row.getCreatedByName());
+        dto.setCreatedDate(row.getCreatedDate());
+        dto.setEditedDate(row.getEditedDate());
+        dto.setDeletedDate(row.getDeletedDate());
+        dto.setParentCommentId(row.getParentCommentId());
+        dto.setReplyCount(row.getReplyCount());
+        return dto;
+    }
+
+    private CommentTreeResponse toTreeNode(CommentTreeRow row) {
+        CommentTreeResponse dto = new CommentTreeResponse();
+        dto.setId(row.getId());
+        dto.setContent(row.getContent());
+        dto.setPostId(row.getPostId());
+        dto.setCreatedBy(row.getCreatedBy());
+        dto.setCreatedByName(row.getCreatedByName());
+        dto.setCreatedDate(row.getCreatedDate());
+        dto.setEditedDate(row.getEditedDate());
+        dto.setDeletedDate(row.getDeletedDate());
+        dto.setParentCommentId(row.getParentCommentId());
+        dto.setReplyCount(row.getReplyCount());
+        dto.setDepth(row.getDepth());
         return dto;
     }
 }
@@ -2,8 +2,10 @@ package org.example.backend.mapper;
 
 import org.example.backend.dto.PostRequest;
 import org.example.backend.dto.PostResponse;
+import org.example.backend.dto.PostSearchResponse;
 import org.example.backend.model.Post;
 import org.example.backend.model.User;
+import org.example.backend.repository.PostSearchRow;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -25,6 +27,19 @@ public class PostMapper {
         response.setCreatedDate(post.getCreatedDate());
         response.setUpdatedDate(post.getUpdatedDate());
         response.setAuthorId(post.getAuthor().getId());
+        response.setCommentCount(post.getCommentCount());
+        response.setLastCommentAt(post.getLastCommentAt());
+        return response;
+    }
+
+    public PostSearchResponse toSearchDto(PostSearchRow row) {
+        PostSearchResponse response = new PostSearchResponse();
+        response.setId(row.getId());
+        response.setTitle(row.getTitle());
+        response.setSnippet(row.getSnippet());
+        response.setRank(row.getRank());
+        response.setCreatedDate(row.getCreatedDate());
+        response.setAuthorId(row.getAuthorId());
         return response;
     }
 }
@@ -3,31 +3,30 @@ package org.example.backend.mapper;
 import org.example.backend.dto.UserRequestDto;
 import org.example.backend.dto.UserResponseDto;
 import org.example.backend.model.*;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
 
 public final class UserMapper {
 
-    private static final BCryptPasswordEncoder ENC = new BCryptPasswordEncoder();
     private UserMapper() {}
 
 
-    public static User toEntity(UserRequestDto dto) {
+    public static User toEntity(UserRequestDto dto, PasswordEncoder encoder) {
         User user = new User();
-        copyIntoEntity(user, dto, true);
+        copyIntoEntity(user, dto, encoder, true);
         return user;
     }
 
 
-    public static void update(User user, UserRequestDto dto) {
-        copyIntoEntity(user, dto, true);
+    public static void update(User user, UserRequestDto dto, PasswordEncoder encoder) {
+        copyIntoEntity(user, dto, encoder, true);
         user.setUpdatedAt(LocalDateTime.now());
     }
 
 
-    public static void patch(User user, UserRequestDto dto) {
-        copyIntoEntity(user, dto, false);
+    public static void patch(User user, UserRequestDto dto, PasswordEncoder encoder) {
+        copyIntoEntity(user, dto, encoder, false);
         user.setUpdatedAt(LocalDateTime.now());
     }
 
@@ -47,14 +46,14 @@ public final class UserMapper {
     }
 
 
-    private static void copyIntoEntity(User user, UserRequestDto dto, boolean overwriteNull) {
+    private static void copyIntoEntity(User user, UserRequestDto dto, PasswordEncoder encoder, boolean overwriteNull) {
 
         if (overwriteNull || dto.getUsername()   != null) user.setUsername(dto.getUsername());
         if (overwriteNull || dto.getEmail()      != null) user.setEmail(dto.getEmail());
 
         if (overwriteNull || dto.getPassword()   != null) {
             String raw = dto.getPassword();
-            if (raw != null) user.setPasswordHash(ENC.encode(raw));
+            if (raw != null) user.setPasswordHash(encoder.encode(raw));
             else if (overwriteNull) user.setPasswordHash(null);
         }
 
@@ -0,0 +1,27 @@
+package org.example.backend.metrics;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * {@link JdbcTemplate}, чьи операторы тоже попадают в {@link SqlStatementCounter}:
+ * Hibernate считает их через {@code StatementInspector}, а JDBC-запросы мимо Hibernate
+ * (лента, подписки, SSE) иначе не видны ни в {@code http.server.requests.sql}, ни в {@code X-SQL-Count}.
+ * Как и у Hibernate, пакет ({@code batchUpdate}) — один оператор.
+ */
+public class CountingJdbcTemplate extends JdbcTemplate {
+
+    public CountingJdbcTemplate(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    /** Вызывается для каждого оператора, который готовит шаблон. */
+    @Override
+    protected void applyStatementSettings(Statement stmt) throws SQLException {
+        SqlStatementCounter.increment();
+        super.applyStatementSettings(stmt);
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.backend.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Считает SQL-операторы, которые Hibernate готовит в текущем потоке.
+ * Подключается свойством {@code hibernate.session_factory.statement_inspector};
+ * операторы {@code JdbcTemplate} добавляет {@link CountingJdbcTemplate} через {@link #increment()};
+ * запрос целиком обслуживается одним потоком, поэтому счётчик потока = счётчик запроса.
+ * Вне {@link #start()}/{@link #stop()} (планировщик, асинхронная выгрузка) ничего не считается.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        increment();
+        return sql;
+    }
+
+    /** Учесть оператор, выполненный мимо Hibernate. */
+    public static void increment() {
+        long[] counter = CURRENT.get();
+        if (counter != null) {
+            counter[0]++;
+        }
+    }
+
+    /** Начать подсчёт для запроса в текущем потоке. */
+    public static void start() {
+        CURRENT.set(new long[1]);
+    }
+
+    /** Сколько операторов насчитано с {@link #start()} (подсчёт продолжается). */
+    public static long current() {
+        long[] counter = CURRENT.get();
+        return counter == null ? 0 : counter[0];
+    }
+
+    /** Закончить подсчёт и вернуть число операторов. */
+    public static long stop() {
+        long count = current();
+        CURRENT.remove();
+        return count;
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Число SQL-операторов на HTTP-запрос: распределение {@value #METRIC} с теми же тегами
+ * {@code method}/{@code uri}, что и у {@code http.server.requests}, — рост среднего на эндпоинте = N+1.
+ * <p>
+ * В отладочном режиме ({@code app.metrics.sql-count-header=true}) число ещё и отдаётся клиенту
+ * в заголовке {@value #HEADER}: в него попадают операторы, выполненные до отправки заголовков ответа.
+ */
+@RequiredArgsConstructor
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    public static final String METRIC = "http.server.requests.sql";
+    public static final String HEADER = "X-SQL-Count";
+    /** Атрибут запроса с итоговым числом операторов — для фильтров, стоящих снаружи. */
+    public static final String COUNT_ATTRIBUTE = SqlStatementMetricsFilter.class.getName() + ".count";
+
+    private final MeterRegistry registry;
+    private final boolean exposeHeader;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementCounter.start();
+        long count = 0;
+        try {
+            chain.doFilter(request, exposeHeader ? new CountHeaderResponse(response) : response);
+        } finally {
+            count = SqlStatementCounter.stop();
+            request.setAttribute(COUNT_ATTRIBUTE, count);
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(METRIC)
+                .description("SQL statements executed per HTTP request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .register(registry)
+                .record(count);
+    }
+
+    /** Дописывает заголовок в момент, когда ответ начинает уходить клиенту. */
+    private static final class CountHeaderResponse extends OnCommittedResponseWrapper {
+
+        CountHeaderResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            setHeader(HEADER, Long.toString(SqlStatementCounter.current()));
+        }
+    }
+}
@@ -37,4 +37,9 @@ public class Comment {
     @ManyToOne
     @JoinColumn(name = "parent_comment_id")
     private Comment parentComment;
+
+    // Счётчик ведёт CommentCounterBuffer прямыми UPDATE; JPA его не пишет, чтобы не затирать
+    @Column(name = "reply_count", insertable = false, updatable = false,
+            columnDefinition = "bigint default 0 not null")
+    private long replyCount;
 }
@@ -4,12 +4,19 @@ import com.fasterxml.jackson.annotation.JsonAlias;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
+
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
 @Entity
 @Table(name = "posts")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "post")
 public class Post {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -25,6 +32,12 @@ public class Post {
     @Column(columnDefinition = "TEXT", nullable = false)
     private String content;
 
+    // Анонс для списков генерирует СУБД из content (см. V4__post_excerpt.sql); JPA его только читает.
+    // @Generated перечитывает колонку после INSERT/UPDATE, иначе в кэш второго уровня попадёт устаревший анонс
+    @Generated(event = {EventType.INSERT, EventType.UPDATE})
+    @Column(name = "excerpt", columnDefinition = "TEXT", insertable = false, updatable = false)
+    private String excerpt;
+
     @JsonAlias("createdDate")
     @Column(name = "created_date", updatable = false)
     private LocalDateTime createdDate = LocalDateTime.now();
@@ -36,4 +49,12 @@ public class Post {
     @JsonProperty("deletedDate")
     @Column(name = "deleted_date")
     private LocalDateTime deletedDate;
+
+    // Счётчики ведёт CommentCounterBuffer прямыми UPDATE; JPA их не пишет, чтобы не затирать
+    @Column(name = "comment_count", insertable = false, updatable = false,
+            columnDefinition = "bigint default 0 not null")
+    private long commentCount;
+
+    @Column(name = "last_comment_at", insertable = false, updatable = false)
+    private LocalDateTime lastCommentAt;
 }
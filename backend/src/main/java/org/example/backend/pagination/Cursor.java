@@ -0,0 +1,71 @@
+package org.example.backend.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Курсор keyset-пагинации: позиция последней отданной строки по ключу (createdDate, id).
+ * Клиенту отдаётся непрозрачной base64url-строкой.
+ */
+public record Cursor(LocalDateTime createdDate, UUID id) {
+
+    /**
+     * Позиция "до первой строки": больше любого реального ключа,
+     * поэтому первая страница выбирается тем же запросом, что и последующие.
+     */
+    public static final Cursor FIRST = new Cursor(
+            LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+            new UUID(-1L, -1L)
+    );
+
+    /** То же для обхода от старых строк к новым: меньше любого реального ключа. */
+    public static final Cursor FIRST_ASCENDING = new Cursor(
+            LocalDateTime.of(1, 1, 1, 0, 0),
+            new UUID(0L, 0L)
+    );
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        String raw = createdDate + "|" + id;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Разобрать курсор из запроса. Пустой курсор означает первую страницу.
+     *
+     * @throws IllegalArgumentException если курсор повреждён
+     */
+    public static Cursor decode(String value) {
+        return decode(value, FIRST);
+    }
+
+    /**
+     * Разобрать курсор обхода от старых строк к новым. Пустой курсор означает первую страницу.
+     *
+     * @throws IllegalArgumentException если курсор повреждён
+     */
+    public static Cursor decodeAscending(String value) {
+        return decode(value, FIRST_ASCENDING);
+    }
+
+    private static Cursor decode(String value, Cursor first) {
+        if (value == null || value.isBlank()) {
+            return first;
+        }
+        try {
+            String raw = new String(DECODER.decode(value), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            if (sep < 0) {
+                throw new IllegalArgumentException("Некорректный курсор");
+            }
+            return new Cursor(LocalDateTime.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректный курсор");
+        }
+    }
+}
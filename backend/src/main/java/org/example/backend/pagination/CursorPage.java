@@ -0,0 +1,29 @@
+package org.example.backend.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница keyset-пагинации.
+ *
+ * @param items      строки страницы
+ * @param nextCursor курсор следующей страницы или {@code null}, если страница последняя
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    /**
+     * Собрать страницу из выборки размером {@code size + 1}:
+     * лишняя строка только сигнализирует, что дальше есть данные.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Cursor> key) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, key.apply(items.get(size - 1)).encode());
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor);
+    }
+}
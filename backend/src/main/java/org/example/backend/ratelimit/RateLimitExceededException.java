@@ -0,0 +1,20 @@
+package org.example.backend.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Клиент исчерпал лимит запросов своей группы — 429 с {@code Retry-After}.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(Duration retryAfter) {
+        super("Слишком много запросов, повторите позже");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
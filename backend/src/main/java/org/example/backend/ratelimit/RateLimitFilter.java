@@ -0,0 +1,54 @@
+package org.example.backend.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.security.AuthUser;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+
+/**
+ * Ограничение частоты запросов ({@link RateLimiter}) до контроллеров, транзакций и пула соединений.
+ * <p>
+ * Стоит после цепочки Spring Security: аутентифицированный клиент считается по пользователю
+ * (с какого бы адреса он ни пришёл), анонимный — по IP. Отказ превращается в ответ
+ * {@link org.example.backend.exception.RestExceptionHandler} — тот же конверт, что и у остальных ошибок.
+ */
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter limiter;
+    private final HandlerExceptionResolver exceptionResolver;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        try {
+            limiter.check(request.getMethod(), path, client(request));
+        } catch (RateLimitExceededException ex) {
+            exceptionResolver.resolveException(request, response, null, ex);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    /** За прокси адрес клиента берётся из X-Forwarded-For при {@code server.forward-headers-strategy}. */
+    private static String client(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            if (auth.getPrincipal() instanceof AuthUser user) {
+                return "user:" + user.getId();
+            }
+            return "user:" + auth.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
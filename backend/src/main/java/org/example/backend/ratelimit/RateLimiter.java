@@ -0,0 +1,137 @@
+package org.example.backend.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.backend.config.RateLimitProperties;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Вёдра токенов по группам эндпоинтов и клиентам.
+ * <p>
+ * Ведро, к которому не обращались дольше {@code period} своей группы, уже полное, и его можно
+ * выбросить без потери информации — поэтому вёдра живут в Caffeine с истечением по простою
+ * и ограничением {@code max-clients}: память не растёт от числа когда-либо виденных клиентов.
+ */
+public class RateLimiter {
+
+    public static final String METRIC = "http.server.requests.rate_limited";
+
+    private final List<Group> groups;
+    private final Cache<BucketKey, TokenBucket> buckets;
+    /** Источник времени в наносекундах ({@link System#nanoTime()}; в тестах — управляемый). */
+    private final LongSupplier nanoClock;
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry registry) {
+        this(properties, registry, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, MeterRegistry registry, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.groups = properties.getGroups().entrySet().stream()
+                .map(e -> new Group(e.getKey(), e.getValue(), registry))
+                .toList();
+        Duration idle = groups.stream()
+                .map(g -> Duration.ofNanos(g.periodNanos))
+                .max(Duration::compareTo)
+                .orElse(Duration.ofMinutes(1));
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idle)
+                .ticker(nanoClock::getAsLong)
+                .maximumSize(properties.getMaxClients())
+                .build();
+        Gauge.builder("http.server.requests.rate_limit.buckets", buckets, Cache::estimatedSize)
+                .description("Rate limit buckets held in memory")
+                .register(registry);
+    }
+
+    /**
+     * Списать запрос клиента с ведра его группы.
+     *
+     * @throws RateLimitExceededException если ведро пусто
+     */
+    public void check(String method, String path, String client) {
+        Group group = match(method, path);
+        if (group == null) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        TokenBucket bucket = buckets.get(new BucketKey(group.name, client),
+                key -> new TokenBucket(group.capacity, group.periodNanos, now));
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            group.rejected.increment();
+            // Retry-After в целых секундах, округляем вверх
+            throw new RateLimitExceededException(Duration.ofSeconds((waitNanos + 999_999_999L) / 1_000_000_000L));
+        }
+    }
+
+    private Group match(String method, String path) {
+        if (groups.isEmpty()) {
+            return null;
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        for (Group group : groups) {
+            if (group.matches(method, container)) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    private record BucketKey(String group, String client) {
+    }
+
+    private static final class Group {
+
+        final String name;
+        final Set<String> methods;
+        final List<PathPattern> paths;
+        final int capacity;
+        final long periodNanos;
+        final Counter rejected;
+
+        Group(String name, RateLimitProperties.Group config, MeterRegistry registry) {
+            if (config.getCapacity() < 1 || config.getPeriod().isNegative() || config.getPeriod().isZero()) {
+                throw new IllegalArgumentException("app.rate-limit.groups." + name
+                        + ": capacity и period должны быть положительными");
+            }
+            this.name = name;
+            this.methods = config.getMethods().stream()
+                    .map(m -> m.toUpperCase(Locale.ROOT))
+                    .collect(Collectors.toUnmodifiableSet());
+            this.paths = config.getPaths().stream()
+                    .map(PathPatternParser.defaultInstance::parse)
+                    .toList();
+            this.capacity = config.getCapacity();
+            this.periodNanos = config.getPeriod().toNanos();
+            this.rejected = Counter.builder(METRIC)
+                    .description("Requests rejected with 429 by the rate limiter")
+                    .tag("group", name)
+                    .register(registry);
+        }
+
+        boolean matches(String method, PathContainer path) {
+            if (!methods.isEmpty() && !methods.contains(method)) {
+                return false;
+            }
+            for (PathPattern pattern : paths) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.backend.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ведро токенов без блокировок.
+ * <p>
+ * Вместо пары «токены + время пополнения» хранится одно число — момент, к которому ведро
+ * снова станет полным (GCRA). Каждый запрос сдвигает его на интервал одного токена;
+ * если момент уходит дальше, чем на {@code period} вперёд, ведро пусто.
+ * Состояние меняется одним CAS, так что конкурирующие запросы не ждут друг друга.
+ */
+final class TokenBucket {
+
+    private final long tokenNanos;
+    private final long periodNanos;
+    /** Момент (по часам {@link RateLimiter}), когда ведро будет полным. */
+    private final AtomicLong fullAt;
+
+    TokenBucket(int capacity, long periodNanos, long now) {
+        this.tokenNanos = Math.max(1, periodNanos / capacity);
+        this.periodNanos = tokenNanos * capacity;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Взять токен.
+     *
+     * @return 0, если токен взят, иначе — через сколько наносекунд он появится
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + tokenNanos;
+            long overdraft = next - now - periodNanos;
+            if (overdraft > 0) {
+                return overdraft;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
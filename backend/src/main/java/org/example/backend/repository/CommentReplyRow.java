@@ -0,0 +1,20 @@
+package org.example.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Строка превью ответов из {@link CommentRepository#findReplyPreviewRows} — ответ вместе с именем автора.
+ */
+public interface CommentReplyRow {
+    UUID getId();
+    String getContent();
+    UUID getPostId();
+    UUID getCreatedBy();
+    String getCreatedByName();
+    LocalDateTime getCreatedDate();
+    LocalDateTime getEditedDate();
+    LocalDateTime getDeletedDate();
+    UUID getParentCommentId();
+    long getReplyCount();
+}
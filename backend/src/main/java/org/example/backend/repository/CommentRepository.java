@@ -1,11 +1,224 @@
 package org.example.backend.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.backend.dto.CommentResponse;
+import org.example.backend.dto.CommentThreadResponse;
 import org.example.backend.model.Comment;
+import org.example.backend.pagination.Cursor;
+import org.example.backend.pagination.CursorPage;
+import org.example.backend.web.ResourceVersion;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface CommentRepository extends JpaRepository<Comment, UUID> {
     List<Comment> findByPost_IdOrderByCreatedDateAsc(UUID postId);
 
+    /** Аргументы конструктора проекции комментария (алиасы: {@code c} — комментарий, {@code u} — автор). */
+    String RESPONSE_COLUMNS = "c.id, c.content, c.post.id, u.id, u.username, c.createdDate, c.editedDate, " +
+            "c.deletedDate, c.parentComment.id, c.replyCount";
+
+    /** Начало JPQL-проекции комментария сразу в {@link CommentResponse}, без загрузки сущностей. */
+    String SELECT_RESPONSE = "SELECT new org.example.backend.dto.CommentResponse(" +
+            RESPONSE_COLUMNS + ") FROM Comment c JOIN c.createdBy u ";
+
+    /** То же в узел постраничной ветки {@link CommentThreadResponse}. */
+    String SELECT_THREAD = "SELECT new org.example.backend.dto.CommentThreadResponse(" +
+            RESPONSE_COLUMNS + ") FROM Comment c JOIN c.createdBy u ";
+
+    /**
+     * Keyset ветки: строки строго после курсора в порядке (createdDate, id) по возрастанию.
+     * Сравнение кортежей — граница диапазона индекса (post_id, parent_comment_id, created_date, id),
+     * как {@link PostRepository#AFTER_CURSOR}; форму с OR PostgreSQL дочитывает фильтром от начала ветки.
+     */
+    String AFTER_CURSOR_ASC = "(c.createdDate, c.id) > (:date, :id) ";
+
+    String THREAD_ORDER = "ORDER BY c.createdDate, c.id";
+
+    @Query(SELECT_RESPONSE + "WHERE c.id = :id")
+    Optional<CommentResponse> findResponseById(@Param("id") UUID id);
+
+    @Query(SELECT_RESPONSE + "WHERE c.post.id = :postId ORDER BY c.createdDate ASC")
+    List<CommentResponse> findResponsesByPostId(@Param("postId") UUID postId);
+
+    /** Пост комментария — для запросов по индексу (post_id, parent_comment_id, created_date). */
+    @Query("SELECT c.post.id FROM Comment c WHERE c.id = :id")
+    Optional<UUID> findPostIdById(@Param("id") UUID id);
+
+    // ===== Постраничная ветка: индекс (post_id, parent_comment_id, created_date, id) =====
+
+    @Query(SELECT_THREAD + "WHERE c.post.id = :postId AND c.parentComment.id IS NULL AND " + AFTER_CURSOR_ASC + THREAD_ORDER)
+    List<CommentThreadResponse> findTopLevelPage(@Param("postId") UUID postId,
+                                                 @Param("date") LocalDateTime date, @Param("id") UUID id, Limit limit);
+
+    @Query(SELECT_THREAD + "WHERE c.post.id = :postId AND c.parentComment.id = :parentId AND " + AFTER_CURSOR_ASC + THREAD_ORDER)
+    List<CommentThreadResponse> findRepliesPage(@Param("postId") UUID postId, @Param("parentId") UUID parentId,
+                                                @Param("date") LocalDateTime date, @Param("id") UUID id, Limit limit);
+
+    /** Страница комментариев верхнего уровня поста, от старых к новым. */
+    default CursorPage<CommentThreadResponse> findTopLevelPage(UUID postId, Cursor cursor, int size) {
+        return CursorPage.of(findTopLevelPage(postId, cursor.createdDate(), cursor.id(), Limit.of(size + 1)),
+                size, CommentRepository::cursorOf);
+    }
+
+    /** Страница прямых ответов на комментарий, от старых к новым. */
+    default CursorPage<CommentThreadResponse> findRepliesPage(UUID postId, UUID parentId, Cursor cursor, int size) {
+        return CursorPage.of(findRepliesPage(postId, parentId, cursor.createdDate(), cursor.id(), Limit.of(size + 1)),
+                size, CommentRepository::cursorOf);
+    }
+
+    private static Cursor cursorOf(CommentResponse comment) {
+        return new Cursor(comment.getCreatedDate(), comment.getId());
+    }
+
+    /**
+     * Первые {@code limit} ответов на каждый из комментариев одним запросом:
+     * на каждого родителя — короткий диапазон индекса (LATERAL ... LIMIT), а не все его ответы.
+     *
+     * @param parentIds комментарии одной страницы ветки
+     * @param limit     сколько ответов взять на каждого родителя
+     */
+    @Query(value = """
+            SELECT r.id                AS id,
+                   r.content           AS content,
+                   r.post_id           AS postId,
+                   r.created_by        AS createdBy,
+                   u.username          AS createdByName,
+                   r.created_date      AS createdDate,
+                   r.edited_date       AS editedDate,
+                   r.deleted_date      AS deletedDate,
+                   r.parent_comment_id AS parentCommentId,
+                   r.reply_count       AS replyCount
+            FROM comments p
+            CROSS JOIN LATERAL (
+                SELECT c.*
+                FROM comments c
+                WHERE c.post_id = p.post_id AND c.parent_comment_id = p.id
+                ORDER BY c.created_date, c.id
+                LIMIT :limit
+            ) r
+            JOIN users u ON u.id = r.created_by
+            WHERE p.id IN (:parentIds)
+            ORDER BY r.parent_comment_id, r.created_date, r.id
+            """, nativeQuery = true)
+    List<CommentReplyRow> findReplyPreviewRows(@Param("parentIds") Collection<UUID> parentIds, @Param("limit") int limit);
+
+    /** Какие из переданных id существуют — для проверки пакета одним запросом. */
+    @Query("SELECT c.id FROM Comment c WHERE c.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    /** Сколько строк драйвер забирает из курсора БД за раз при потоковой выгрузке. */
+    String EXPORT_FETCH_SIZE = "500";
+
+    /** Все комментарии для выгрузки. Вызывать внутри транзакции и закрывать после чтения. */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_RESPONSE + "ORDER BY c.createdDate, c.id")
+    Stream<CommentResponse> streamAll();
+
+    /** Комментарии одного поста для выгрузки. Вызывать внутри транзакции и закрывать после чтения. */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_RESPONSE + "WHERE c.post.id = :postId ORDER BY c.createdDate, c.id")
+    Stream<CommentResponse> streamByPostId(@Param("postId") UUID postId);
+
+    /** Версия комментария для условного GET — только метки, без загрузки сущности. */
+    @Query("SELECT new org.example.backend.web.ResourceVersion(c.editedDate, c.deletedDate, c.replyCount) " +
+            "FROM Comment c WHERE c.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") UUID id);
+
+    /**
+     * Версия ветки комментариев поста: последние правка и удаление, число комментариев
+     * (ловит добавление комментария с меткой старше текущего максимума) плюс сумма {@code replyCount} —
+     * счётчики ответов дописываются через секунду после комментария и без смены меток.
+     */
+    @Query("SELECT new org.example.backend.web.ResourceVersion(max(c.editedDate), max(c.deletedDate), " +
+            "count(c) + coalesce(sum(c.replyCount), 0)) " +
+            "FROM Comment c WHERE c.post.id = :postId")
+    ResourceVersion findThreadVersion(@Param("postId") UUID postId);
+
+    /**
+     * Ветка комментариев поста одним запросом (рекурсивный CTE) вместе с именами авторов.
+     * Лимит на число ответов применяется внутри CTE: у каждого родителя берутся первые {@code perLevel}
+     * ответов по (createdDate, id), и только они раскрываются дальше — поддеревья отброшенных ответов
+     * не читаются. Сколько всего ответов у родителя, показывает {@code siblings}.
+     * Строки упорядочены по глубине, поэтому родитель всегда идёт раньше своих ответов.
+     *
+     * @param postId   идентификатор поста
+     * @param maxDepth максимальная глубина (0 — только комментарии верхнего уровня)
+     * @param perLevel максимум ответов на один комментарий (и комментариев верхнего уровня)
+     */
+    @Query(value = """
+            WITH RECURSIVE thread (id, depth, position, siblings) AS (
+                SELECT c.id, 0,
+                       row_number() OVER (ORDER BY c.created_date, c.id),
+                       count(*) OVER ()
+                FROM comments c
+                WHERE c.post_id = :postId AND c.parent_comment_id IS NULL
+                UNION ALL
+                SELECT c.id, t.depth + 1,
+                       row_number() OVER (PARTITION BY c.parent_comment_id ORDER BY c.created_date, c.id),
+                       count(*) OVER (PARTITION BY c.parent_comment_id)
+                FROM thread t
+                JOIN comments c ON c.post_id = :postId AND c.parent_comment_id = t.id
+                WHERE t.depth < :maxDepth AND t.position <= :perLevel
+            )
+            SELECT c.id                AS id,
+                   c.content           AS content,
+                   c.post_id           AS postId,
+                   c.created_by        AS createdBy,
+                   u.username          AS createdByName,
+                   c.created_date      AS createdDate,
+                   c.edited_date       AS editedDate,
+                   c.deleted_date      AS deletedDate,
+                   c.parent_comment_id AS parentCommentId,
+                   c.reply_count       AS replyCount,
+                   t.depth             AS depth,
+                   t.siblings          AS siblings
+            FROM thread t
+            JOIN comments c ON c.id = t.id
+            JOIN users u ON u.id = c.created_by
+            WHERE t.position <= :perLevel
+            ORDER BY t.depth, c.created_date, c.id
+            """, nativeQuery = true)
+    List<CommentTreeRow> findThreadRows(@Param("postId") UUID postId, @Param("maxDepth") int maxDepth,
+                                        @Param("perLevel") int perLevel);
+
+    /**
+     * Полнотекстовый поиск по неудалённым комментариям активных постов
+     * (колонка {@code search_vector} + GIN-индекс), по убыванию релевантности.
+     *
+     * @param query  поисковый запрос в синтаксисе {@code websearch_to_tsquery}
+     * @param limit  сколько строк вернуть
+     * @param offset сколько строк пропустить
+     */
+    @Query(value = """
+            SELECT h.id AS id,
+                   h.post_id AS postId,
+                   ts_headline('russian', h.content, h.query,
+                               'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=30, MinWords=10') AS snippet,
+                   h.rank AS rank,
+                   h.created_by AS createdBy,
+                   h.created_date AS createdDate
+            FROM (
+                SELECT c.id, c.post_id, c.content, c.created_by, c.created_date, q.query,
+                       ts_rank(c.search_vector, q.query) AS rank
+                FROM comments c
+                JOIN posts p ON p.id = c.post_id AND p.deleted_date IS NULL,
+                     websearch_to_tsquery('russian', :query) AS q(query)
+                WHERE c.deleted_date IS NULL AND c.search_vector @@ q.query
+                ORDER BY rank DESC, c.id
+                LIMIT :limit OFFSET :offset
+            ) h
+            ORDER BY h.rank DESC, h.id
+            """, nativeQuery = true)
+    List<CommentSearchRow> search(@Param("query") String query, @Param("limit") int limit, @Param("offset") int offset);
 }
@@ -0,0 +1,16 @@
+package org.example.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Строка результата полнотекстового поиска по комментариям ({@link CommentRepository#search}).
+ */
+public interface CommentSearchRow {
+    UUID getId();
+    UUID getPostId();
+    String getSnippet();
+    float getRank();
+    UUID getCreatedBy();
+    LocalDateTime getCreatedDate();
+}
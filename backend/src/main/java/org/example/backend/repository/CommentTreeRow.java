@@ -0,0 +1,24 @@
+package org.example.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Строка ветки комментариев из рекурсивного запроса
+ * {@link CommentRepository#findThreadRows(UUID, int, int)} — комментарий вместе с именем автора и глубиной.
+ */
+public interface CommentTreeRow {
+    UUID getId();
+    String getContent();
+    UUID getPostId();
+    UUID getCreatedBy();
+    String getCreatedByName();
+    LocalDateTime getCreatedDate();
+    LocalDateTime getEditedDate();
+    LocalDateTime getDeletedDate();
+    UUID getParentCommentId();
+    long getReplyCount();
+    int getDepth();
+    /** Сколько всего ответов у того же родителя (комментариев верхнего уровня — у поста), включая отброшенные лимитом. */
+    long getSiblings();
+}
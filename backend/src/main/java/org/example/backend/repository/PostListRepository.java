@@ -0,0 +1,30 @@
+package org.example.backend.repository;
+
+import org.example.backend.dto.PostResponse;
+import org.example.backend.pagination.Cursor;
+import org.example.backend.pagination.CursorPage;
+import org.example.backend.web.PostFields;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Списки постов, в которых читаются только запрошенные колонки ({@link PostFields}):
+ * для {@code ?view=list} запрос берёт {@code excerpt} и не трогает TEXT-колонку {@code content}.
+ * Автор при {@code ?embed=author} приходит тем же запросом.
+ */
+public interface PostListRepository {
+
+    /** Страница всех постов после курсора. */
+    CursorPage<PostResponse> findPage(Cursor cursor, int size, PostFields fields);
+
+    /** Страница активных постов после курсора; {@code username == null} — посты всех авторов. */
+    CursorPage<PostResponse> findActivePage(String username, Cursor cursor, int size, PostFields fields);
+
+    /** Страница удалённых постов после курсора; {@code username == null} — посты всех авторов. */
+    CursorPage<PostResponse> findDeletedPage(String username, Cursor cursor, int size, PostFields fields);
+
+    /** Посты по списку id одним IN-запросом (в порядке БД). */
+    List<PostResponse> findResponsesByIds(Collection<UUID> ids, PostFields fields);
+}
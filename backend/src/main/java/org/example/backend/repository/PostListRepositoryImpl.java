@@ -0,0 +1,138 @@
+package org.example.backend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.TypedQuery;
+import org.example.backend.dto.AuthorSummary;
+import org.example.backend.dto.PostResponse;
+import org.example.backend.pagination.Cursor;
+import org.example.backend.pagination.CursorPage;
+import org.example.backend.web.PostFields;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+import static org.example.backend.repository.PostRepository.AFTER_CURSOR;
+import static org.example.backend.repository.PostRepository.PAGE_ORDER;
+
+class PostListRepositoryImpl implements PostListRepository {
+
+    /** Поле ответа → выражение JPQL; псевдоним колонки в запросе совпадает с именем поля. */
+    private static final Map<String, String> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put(PostFields.ID, "p.id");
+        COLUMNS.put(PostFields.TITLE, "p.title");
+        COLUMNS.put(PostFields.CONTENT, "p.content");
+        COLUMNS.put(PostFields.EXCERPT, "p.excerpt");
+        COLUMNS.put(PostFields.CREATED_DATE, "p.createdDate");
+        COLUMNS.put(PostFields.UPDATED_DATE, "p.updatedDate");
+        COLUMNS.put(PostFields.AUTHOR_ID, "p.author.id");
+        COLUMNS.put(PostFields.COMMENT_COUNT, "p.commentCount");
+        COLUMNS.put(PostFields.LAST_COMMENT_AT, "p.lastCommentAt");
+    }
+
+    private static final String AUTHOR_USERNAME = "authorUsername";
+    private static final String AUTHOR_AVATAR_URL = "authorAvatarUrl";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PostResponse> findPage(Cursor cursor, int size, PostFields fields) {
+        return page("", null, cursor, size, fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PostResponse> findActivePage(String username, Cursor cursor, int size, PostFields fields) {
+        return page("p.deletedDate IS NULL AND ", username, cursor, size, fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PostResponse> findDeletedPage(String username, Cursor cursor, int size, PostFields fields) {
+        return page("p.deletedDate IS NOT NULL AND ", username, cursor, size, fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PostResponse> findResponsesByIds(Collection<UUID> ids, PostFields fields) {
+        return entityManager.createQuery(select(fields, false) + "WHERE p.id IN :ids", Tuple.class)
+                .setParameter("ids", ids)
+                .getResultList()
+                .stream()
+                .map(PostListRepositoryImpl::toResponse)
+                .toList();
+    }
+
+    private CursorPage<PostResponse> page(String condition, String username, Cursor cursor, int size, PostFields fields) {
+        boolean byUsername = username != null;
+        String jpql = select(fields, byUsername) + "WHERE " + condition
+                + (byUsername ? "a.username = :username AND " : "")
+                + AFTER_CURSOR + PAGE_ORDER;
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql, Tuple.class)
+                .setParameter("date", cursor.createdDate())
+                .setParameter("id", cursor.id())
+                .setMaxResults(size + 1);
+        if (byUsername) {
+            query.setParameter("username", username);
+        }
+        List<PostResponse> rows = query.getResultList().stream()
+                .map(PostListRepositoryImpl::toResponse)
+                .toList();
+        return CursorPage.of(rows, size, post -> new Cursor(post.getCreatedDate(), post.getId()));
+    }
+
+    /** SELECT нужных колонок; id и createdDate читаются всегда — из них строится курсор. */
+    private static String select(PostFields fields, boolean joinAuthor) {
+        StringJoiner columns = new StringJoiner(", ", "SELECT ", " ");
+        COLUMNS.forEach((field, expression) -> {
+            if (fields.has(field) || field.equals(PostFields.ID) || field.equals(PostFields.CREATED_DATE)
+                    || (field.equals(PostFields.AUTHOR_ID) && fields.withAuthor())) {
+                columns.add(expression + " AS " + field);
+            }
+        });
+        if (fields.withAuthor()) {
+            columns.add("a.username AS " + AUTHOR_USERNAME);
+            columns.add("a.avatarUrl AS " + AUTHOR_AVATAR_URL);
+        }
+        return columns + "FROM Post p " + (joinAuthor || fields.withAuthor() ? "JOIN p.author a " : "");
+    }
+
+    private static PostResponse toResponse(Tuple row) {
+        PostResponse post = new PostResponse();
+        String authorUsername = null;
+        String authorAvatarUrl = null;
+        for (TupleElement<?> element : row.getElements()) {
+            Object value = row.get(element);
+            switch (element.getAlias()) {
+                case PostFields.ID -> post.setId((UUID) value);
+                case PostFields.TITLE -> post.setTitle((String) value);
+                case PostFields.CONTENT -> post.setContent((String) value);
+                case PostFields.EXCERPT -> post.setExcerpt((String) value);
+                case PostFields.CREATED_DATE -> post.setCreatedDate((LocalDateTime) value);
+                case PostFields.UPDATED_DATE -> post.setUpdatedDate((LocalDateTime) value);
+                case PostFields.AUTHOR_ID -> post.setAuthorId((UUID) value);
+                case PostFields.COMMENT_COUNT -> post.setCommentCount((Long) value);
+                case PostFields.LAST_COMMENT_AT -> post.setLastCommentAt((LocalDateTime) value);
+                case AUTHOR_USERNAME -> authorUsername = (String) value;
+                case AUTHOR_AVATAR_URL -> authorAvatarUrl = (String) value;
+                default -> throw new IllegalStateException("Неизвестная колонка " + element.getAlias());
+            }
+        }
+        if (authorUsername != null) {
+            post.setAuthor(new AuthorSummary(post.getAuthorId(), authorUsername, authorAvatarUrl));
+        }
+        return post;
+    }
+}
@@ -1,31 +1,118 @@
 package org.example.backend.repository;
 
 
+import jakarta.persistence.QueryHint;
+import org.example.backend.dto.PostResponse;
 import org.example.backend.model.Post;
+import org.example.backend.web.ResourceVersion;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface PostRepository extends JpaRepository<Post, UUID> {
+public interface PostRepository extends JpaRepository<Post, UUID>, PostListRepository {
 
-    @Query("SELECT p FROM Post p WHERE p.deletedDate IS NOT NULL AND p.author.username = :username")
-    List<Post> findDeletedByUsername(@Param("username") String username);
+    /** Начало JPQL-проекции поста сразу в {@link PostResponse}, без загрузки сущностей. */
+    String SELECT_RESPONSE = "SELECT new org.example.backend.dto.PostResponse(" +
+            "p.id, p.title, p.content, p.createdDate, p.updatedDate, p.author.id, " +
+            "p.commentCount, p.lastCommentAt) FROM Post p ";
 
-    @Query("SELECT p FROM Post p WHERE p.deletedDate IS NOT NULL")
-    List<Post> findAllDeleted();
+    /**
+     * Условие keyset-пагинации: строки строго после курсора в порядке (createdDate, id) по убыванию.
+     * Сравнение кортежей, а не {@code date < :date OR (date = :date AND id < :id)}: такое OR PostgreSQL
+     * не может сделать границей индекса (created_date, id) и фильтрует всё до курсора,
+     * а сравнение кортежей — начало диапазона, так что глубокая страница стоит столько же, сколько первая.
+     */
+    String AFTER_CURSOR = "(p.createdDate, p.id) < (:date, :id) ";
 
-    @Query("SELECT p FROM Post p WHERE p.deletedDate IS NULL AND p.author.username = :username")
-    List<Post> findActiveByUsername(@Param("username") String username);
+    String PAGE_ORDER = "ORDER BY p.createdDate DESC, p.id DESC";
 
-    @Query("SELECT p FROM Post p WHERE p.deletedDate IS NULL")
-    List<Post> findAllActive();
+    @Query(SELECT_RESPONSE + "WHERE p.id = :id")
+    Optional<PostResponse> findResponseById(@Param("id") UUID id);
 
-    /** {@code @Override} на "мягкое" удаление */
+    /** Сколько строк драйвер забирает из курсора БД за раз при потоковой выгрузке. */
+    String EXPORT_FETCH_SIZE = "500";
+
+    String EXPORT_ORDER = "ORDER BY p.createdDate, p.id";
+
+    /** Какие из переданных id существуют — для проверки пакета одним запросом. */
+    @Query("SELECT p.id FROM Post p WHERE p.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    /** Версия поста для условного GET — только метки, без загрузки сущности. */
+    @Query("SELECT new org.example.backend.web.ResourceVersion(p.updatedDate, p.lastCommentAt, p.commentCount) " +
+            "FROM Post p WHERE p.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") UUID id);
+
+    // ===== Потоковая выгрузка: строки читаются курсором, а не списком =====
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_RESPONSE + "WHERE p.deletedDate IS NULL " + EXPORT_ORDER)
+    Stream<PostResponse> streamActive();
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_RESPONSE + "WHERE p.deletedDate IS NULL AND p.author.username = :username " + EXPORT_ORDER)
+    Stream<PostResponse> streamActiveByUsername(@Param("username") String username);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_RESPONSE + "WHERE p.deletedDate IS NOT NULL " + EXPORT_ORDER)
+    Stream<PostResponse> streamDeleted();
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_RESPONSE + "WHERE p.deletedDate IS NOT NULL AND p.author.username = :username " + EXPORT_ORDER)
+    Stream<PostResponse> streamDeletedByUsername(@Param("username") String username);
+
+    /**
+     * Поток постов для выгрузки. Вызывать внутри транзакции и закрывать после чтения.
+     *
+     * @param deleted  выгружать удалённые посты вместо активных
+     * @param username автор или {@code null} — все авторы
+     */
+    default Stream<PostResponse> streamForExport(boolean deleted, String username) {
+        if (deleted) {
+            return username == null ? streamDeleted() : streamDeletedByUsername(username);
+        }
+        return username == null ? streamActive() : streamActiveByUsername(username);
+    }
+
+    /**
+     * Полнотекстовый поиск по активным постам (колонка {@code search_vector} + GIN-индекс),
+     * по убыванию релевантности. Фрагменты с подсветкой строятся только для строк страницы.
+     *
+     * @param query  поисковый запрос в синтаксисе {@code websearch_to_tsquery}
+     * @param limit  сколько строк вернуть
+     * @param offset сколько строк пропустить
+     */
+    @Query(value = """
+            SELECT h.id AS id,
+                   h.title AS title,
+                   ts_headline('russian', h.content, h.query,
+                               'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=30, MinWords=10') AS snippet,
+                   h.rank AS rank,
+                   h.created_date AS createdDate,
+                   h.author_id AS authorId
+            FROM (
+                SELECT p.id, p.title, p.content, p.created_date, p.author_id, q.query,
+                       ts_rank(p.search_vector, q.query) AS rank
+                FROM posts p, websearch_to_tsquery('russian', :query) AS q(query)
+                WHERE p.deleted_date IS NULL AND p.search_vector @@ q.query
+                ORDER BY rank DESC, p.id
+                LIMIT :limit OFFSET :offset
+            ) h
+            ORDER BY h.rank DESC, h.id
+            """, nativeQuery = true)
+    List<PostSearchRow> search(@Param("query") String query, @Param("limit") int limit, @Param("offset") int offset);
+
+    /** {@code @Override} на "мягкое" удаление; из домашних лент пост убирает {@code Timeline.removePost}. */
     @Override
     default void deleteById(@NonNull UUID id) {
         findById(id).ifPresent(post -> {
@@ -0,0 +1,16 @@
+package org.example.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Строка результата полнотекстового поиска по постам ({@link PostRepository#search}).
+ */
+public interface PostSearchRow {
+    UUID getId();
+    String getTitle();
+    String getSnippet();
+    float getRank();
+    LocalDateTime getCreatedDate();
+    UUID getAuthorId();
+}
@@ -0,0 +1,9 @@
+package org.example.backend.repository;
+
+/**
+ * Уникальные значения пользователя из {@link UserRepository#streamKeys()}.
+ */
+public interface UserKeyRow {
+    String getUsername();
+    String getEmail();
+}
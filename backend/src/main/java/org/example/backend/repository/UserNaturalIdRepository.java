@@ -0,0 +1,13 @@
+package org.example.backend.repository;
+
+import org.example.backend.model.User;
+
+import java.util.Optional;
+
+/**
+ * Поиск пользователя по username через natural-id API Hibernate,
+ * чтобы повторные обращения обслуживались из кэша второго уровня, а не запросом.
+ */
+public interface UserNaturalIdRepository {
+    Optional<User> findByUsername(String username);
+}
@@ -1,13 +1,48 @@
 package org.example.backend.repository;
 
+import org.example.backend.dto.UserResponseDto;
 import org.example.backend.model.User;
+import jakarta.persistence.QueryHint;
+import org.example.backend.web.ResourceVersion;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<User, UUID> {
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, UUID>, UserNaturalIdRepository {
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
+
+    /** Начало JPQL-проекции пользователя сразу в {@link UserResponseDto}, без загрузки сущностей. */
+    String SELECT_RESPONSE = "SELECT new org.example.backend.dto.UserResponseDto(" +
+            "u.id, u.username, u.email, u.bio, u.avatarUrl, u.birthDate, u.gender, u.createdAt, u.updatedAt) FROM User u ";
+
+    @Query(SELECT_RESPONSE + "WHERE u.id = :id")
+    Optional<UserResponseDto> findResponseById(@Param("id") UUID id);
+
+    /** Версия пользователя для условного GET — только метка, без загрузки сущности. */
+    @Query("SELECT new org.example.backend.web.ResourceVersion(u.updatedAt, u.createdAt, 0L) FROM User u WHERE u.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") UUID id);
+
+    @Query(SELECT_RESPONSE)
+    List<UserResponseDto> findAllResponses();
+
+    /** Пользователи по списку id одним IN-запросом (в порядке БД). */
+    @Query(SELECT_RESPONSE + "WHERE u.id IN :ids")
+    List<UserResponseDto> findResponsesByIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Username и email всех пользователей курсором — для фильтра занятых значений.
+     * Вызывать внутри транзакции и закрывать после чтения.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.username AS username, u.email AS email FROM User u")
+    Stream<UserKeyRow> streamKeys();
 }
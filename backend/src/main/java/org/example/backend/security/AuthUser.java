@@ -0,0 +1,25 @@
+package org.example.backend.security;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Аутентифицированный пользователь с идентификатором из БД,
+ * чтобы контроллерам не приходилось повторно искать его по username.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class AuthUser extends User {
+
+    private final UUID id;
+
+    public AuthUser(UUID id, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+}
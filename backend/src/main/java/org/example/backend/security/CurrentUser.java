@@ -0,0 +1,16 @@
+package org.example.backend.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Параметр контроллера типа {@link org.example.backend.model.User}, в который подставляется
+ * ссылка на текущего пользователя ({@code getReferenceById}) без отдельного SELECT.
+ * Для неаутентифицированного запроса подставляется {@code null}.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+}
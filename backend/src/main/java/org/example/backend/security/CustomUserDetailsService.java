@@ -3,6 +3,7 @@ package org.example.backend.security;
 import org.example.backend.model.User;
 import org.example.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
 
@@ -16,10 +17,7 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPasswordHash())
-                .roles("USER")
-                .build();
+        return new AuthUser(user.getId(), user.getUsername(), user.getPasswordHash(),
+                AuthorityUtils.createAuthorityList("ROLE_USER"));
     }
 }
@@ -0,0 +1,124 @@
+package org.example.backend.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Выпуск и проверка подписанных токенов доступа.
+ * <p>
+ * Формат: {@code base64url(userId:username:expEpochSeconds).base64url(HMAC-SHA256)}.
+ * Проверка полностью локальная — без обращения к БД и без BCrypt.
+ * Срок сверяется с часами экземпляра, который проверяет токен, поэтому истёкший токен
+ * принимается ещё {@code clock-skew} — на расхождение часов между экземплярами.
+ */
+@Slf4j
+@Component
+public class TokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Duration clockSkew;
+    private final Clock clock;
+
+    @Autowired
+    public TokenService(@Value("${app.security.token.secret:}") String secret,
+                        @Value("${app.security.token.ttl:PT1H}") Duration ttl,
+                        @Value("${app.security.token.clock-skew:PT30S}") Duration clockSkew) {
+        this(secret, ttl, clockSkew, Clock.systemUTC());
+    }
+
+    TokenService(String secret, Duration ttl, Duration clockSkew, Clock clock) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            // без настроенного секрета токены живут только до перезапуска
+            log.warn("app.security.token.secret не задан, используется случайный ключ");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttl = ttl;
+        this.clockSkew = clockSkew;
+        this.clock = clock;
+    }
+
+    /**
+     * Данные, подписанные в токене.
+     */
+    public record Claims(UUID userId, String username, Instant expiresAt) {
+    }
+
+    /** Данные нового токена для пользователя, истекающего через настроенный TTL. */
+    public Claims claimsFor(UUID userId, String username) {
+        return new Claims(userId, username, clock.instant().plus(ttl).truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /** Подписать токен с заданными данными. */
+    public String issue(Claims claims) {
+        String payload = claims.userId() + ":" + claims.username() + ":" + claims.expiresAt().getEpochSecond();
+        String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return encodedPayload + "." + ENCODER.encodeToString(sign(encodedPayload));
+    }
+
+    /**
+     * Проверить подпись и срок действия токена.
+     *
+     * @return данные токена или пусто, если токен повреждён, подделан или истёк
+     */
+    public Optional<Claims> verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return Optional.empty();
+        }
+        String encodedPayload = token.substring(0, dot);
+        try {
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(encodedPayload))) {
+                return Optional.empty();
+            }
+            String[] parts = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8).split(":", 3);
+            if (parts.length != 3) {
+                return Optional.empty();
+            }
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(parts[2]));
+            if (!clock.instant().isBefore(expiresAt.plus(clockSkew))) {
+                return Optional.empty();
+            }
+            return Optional.of(new Claims(UUID.fromString(parts[0]), parts[1], expiresAt));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(String encodedPayload) {
+        try {
+            // Mac не потокобезопасен, экземпляр на вызов дешевле синхронизации
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC недоступен", e);
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package org.example.backend.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.config.CommentStreamProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Живая лента комментариев поста: рассылка событий {@code created}, {@code updated}, {@code deleted}
+ * подписчикам SSE.
+ * <p>
+ * Соединение — асинхронный запрос сервлета ({@link SseEmitter}), отдельный поток на него не занимается.
+ * У каждого подписчика своя ограниченная очередь ({@code buffer-size}); очереди разгребает небольшой
+ * общий пул ({@code sender-threads}), так что медленный клиент задерживает только себя, а когда его
+ * очередь переполняется, соединение закрывается. Событие сериализуется один раз для всех подписчиков.
+ * <p>
+ * По каждому посту хранятся последние {@code replay-size} событий: клиент, переподключившийся
+ * с {@code Last-Event-ID}, получает пропущенное. Если пропущенное уже вытеснено или пост долго был
+ * без подписчиков, приходит событие {@code reset} — ветку нужно перечитать обычным запросом.
+ * Лента живёт в памяти экземпляра и видит только записи, прошедшие через этот же экземпляр.
+ */
+@Slf4j
+@Component
+public class CommentStreamHub {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String RESET = "reset";
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("ping").build();
+
+    private final CommentStreamProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService sender;
+    private final ConcurrentHashMap<UUID, Topic> topics = new ConcurrentHashMap<>();
+    /** Идентификаторы событий растут и между перезапусками: отсчёт идёт от текущего времени в микросекундах. */
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Counter evictions;
+
+    public CommentStreamHub(CommentStreamProperties properties, ObjectMapper objectMapper, MeterRegistry registry) {
+        if (properties.getBufferSize() < 1 || properties.getReplaySize() < 0 || properties.getSenderThreads() < 1) {
+            throw new IllegalArgumentException("app.comments.stream: buffer-size и sender-threads должны быть положительными, "
+                    + "replay-size — неотрицательным");
+        }
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        CustomizableThreadFactory threads = new CustomizableThreadFactory("comment-stream-");
+        threads.setDaemon(true);
+        this.sender = Executors.newFixedThreadPool(properties.getSenderThreads(), threads);
+        Gauge.builder("comments.stream.subscribers", subscribers, AtomicInteger::get)
+                .description("Open comment stream connections")
+                .register(registry);
+        Gauge.builder("comments.stream.topics", topics, ConcurrentHashMap::size)
+                .description("Posts with comment stream state in memory")
+                .register(registry);
+        this.evictions = Counter.builder("comments.stream.evictions")
+                .description("Comment stream subscribers disconnected for falling behind")
+                .register(registry);
+    }
+
+    /**
+     * Подписаться на события поста.
+     *
+     * @param postId      идентификатор поста
+     * @param lastEventId заголовок {@code Last-Event-ID} переподключившегося клиента; пусто — только новые события
+     * @throws ResponseStatusException 503, если достигнут {@code max-subscribers}
+     */
+    public SseEmitter subscribe(UUID postId, String lastEventId) {
+        if (subscribers.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscribers.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many stream subscribers");
+        }
+        Subscriber subscriber = new Subscriber(new SseEmitter(properties.getTimeout().toMillis()), properties.getBufferSize());
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> {
+            unsubscribe(subscriber);
+            emitter.complete();
+        });
+
+        Long resumeAfter = parseEventId(lastEventId);
+        topics.compute(postId, (id, existing) -> {
+            Topic topic = existing != null ? existing : new Topic(postId, sequence.get());
+            synchronized (topic) {
+                if (resumeAfter != null) {
+                    replay(topic, subscriber, resumeAfter);
+                }
+                subscriber.topic = topic;
+                topic.subscribers.add(subscriber);
+                topic.touch();
+            }
+            return topic;
+        });
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Разослать событие подписчикам поста — после коммита текущей транзакции, если она есть.
+     * Если на пост никто не подписан, событие даже не сериализуется.
+     *
+     * @param postId  идентификатор поста
+     * @param event   имя события ({@link #CREATED}, {@link #UPDATED}, {@link #DELETED})
+     * @param payload данные события, сериализуются в JSON
+     */
+    public void publish(UUID postId, String event, Object payload) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(postId, event, payload);
+                }
+            });
+        } else {
+            send(postId, event, payload);
+        }
+    }
+
+    /**
+     * Пустое событие всем подписчикам (заодно отключает тех, чья очередь так и не разгрузилась)
+     * и выброс истории постов, на которые давно никто не подписан.
+     */
+    @Scheduled(fixedDelayString = "${app.comments.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        long idleBefore = System.nanoTime() - properties.getIdleTopicTtl().toNanos();
+        for (UUID postId : topics.keySet()) {
+            topics.computeIfPresent(postId, (id, topic) -> {
+                synchronized (topic) {
+                    if (topic.subscribers.isEmpty()) {
+                        return topic.lastActive - idleBefore < 0 ? null : topic;
+                    }
+                    offerAll(topic, HEARTBEAT);
+                    return topic;
+                }
+            });
+        }
+    }
+
+    /** Закрыть все соединения при остановке, чтобы клиенты переподключились к другому экземпляру. */
+    @PreDestroy
+    void shutdown() {
+        for (Topic topic : topics.values()) {
+            List<Subscriber> open;
+            synchronized (topic) {
+                open = List.copyOf(topic.subscribers);
+            }
+            open.forEach(s -> complete(s.emitter));
+        }
+        sender.shutdownNow();
+    }
+
+    private void send(UUID postId, String event, Object payload) {
+        Topic topic = topics.get(postId);
+        if (topic == null) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("Не удалось сериализовать событие {} поста {}", event, postId, e);
+            return;
+        }
+        synchronized (topic) {
+            long id = sequence.incrementAndGet();
+            Set<DataWithMediaType> frame = SseEmitter.event().id(Long.toString(id)).name(event).data(json).build();
+            if (properties.getReplaySize() > 0) {
+                if (topic.recent.size() == properties.getReplaySize()) {
+                    topic.since = topic.recent.removeFirst().id();
+                }
+                topic.recent.addLast(new Event(id, frame));
+            } else {
+                topic.since = id;
+            }
+            topic.touch();
+            offerAll(topic, frame);
+        }
+    }
+
+    /**
+     * Положить в очередь подписчика события после {@code resumeAfter}. Если часть из них уже потеряна
+     * или не помещается в очередь — вместо них {@code reset}.
+     */
+    private void replay(Topic topic, Subscriber subscriber, long resumeAfter) {
+        if (resumeAfter < topic.since) {
+            subscriber.queue.offer(reset(topic));
+            return;
+        }
+        for (Event event : topic.recent) {
+            if (event.id() > resumeAfter && !subscriber.queue.offer(event.frame())) {
+                subscriber.queue.clear();
+                subscriber.queue.offer(reset(topic));
+                return;
+            }
+        }
+    }
+
+    /** Событие {@code reset} с id последнего события: после перечитывания ветки клиент догоняет с него. */
+    private Set<DataWithMediaType> reset(Topic topic) {
+        return SseEmitter.event()
+                .id(Long.toString(sequence.get()))
+                .name(RESET)
+                .data("{\"postId\":\"" + topic.postId + "\"}")
+                .build();
+    }
+
+    /** Вызывается под блокировкой темы. */
+    private void offerAll(Topic topic, Set<DataWithMediaType> frame) {
+        for (Iterator<Subscriber> it = topic.subscribers.iterator(); it.hasNext(); ) {
+            Subscriber subscriber = it.next();
+            if (subscriber.queue.offer(frame)) {
+                schedule(subscriber);
+            } else if (subscriber.close()) {
+                // медленный клиент: закрываем на потоке рассылки, чтобы не ждать здесь его запись
+                it.remove();
+                subscribers.decrementAndGet();
+                evictions.increment();
+                execute(() -> complete(subscriber.emitter));
+            }
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.close()) {
+            return;
+        }
+        subscribers.decrementAndGet();
+        Topic topic = subscriber.topic;
+        if (topic != null) {
+            synchronized (topic) {
+                topic.subscribers.remove(subscriber);
+                topic.touch();
+            }
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<DataWithMediaType> frame;
+            while (!subscriber.closed.get() && (frame = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(frame);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // клиент ушёл или соединение уже закрыто; контейнер сам завершит запрос
+            unsubscribe(subscriber);
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        if (!subscriber.closed.get() && !subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            sender.execute(task);
+        } catch (RejectedExecutionException e) {
+            // приложение останавливается
+        }
+    }
+
+    private static void complete(SseEmitter emitter) {
+        try {
+            emitter.complete();
+        } catch (RuntimeException e) {
+            log.debug("Comment stream already closed", e);
+        }
+    }
+
+    /** Нечитаемый {@code Last-Event-ID} — догнать нельзя, клиент получит {@code reset}. */
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private record Event(long id, Set<DataWithMediaType> frame) {
+    }
+
+    /** Состояние одного поста; все поля меняются под блокировкой самого объекта. */
+    private static final class Topic {
+
+        final UUID postId;
+        final ArrayDeque<Event> recent = new ArrayDeque<>();
+        final Set<Subscriber> subscribers = new HashSet<>();
+        /** События поста с id больше этого значения либо лежат в {@link #recent}, либо ещё не случились. */
+        long since;
+        long lastActive;
+
+        Topic(UUID postId, long since) {
+            this.postId = postId;
+            this.since = since;
+        }
+
+        void touch() {
+            lastActive = System.nanoTime();
+        }
+    }
+
+    private static final class Subscriber {
+
+        final SseEmitter emitter;
+        final ArrayBlockingQueue<Set<DataWithMediaType>> queue;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+        volatile Topic topic;
+
+        Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        /** @return {@code true}, если подписчик закрыт этим вызовом */
+        boolean close() {
+            return closed.compareAndSet(false, true);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.backend.web;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Набор id для пакетного чтения ({@code /batch?ids=...}): без повторов, в порядке запроса,
+ * не больше заданного числа. Строки из IN-запроса возвращаются в том же порядке,
+ * а не найденные id перечисляются отдельно.
+ */
+public final class BatchIds {
+
+    private final Set<UUID> ids;
+
+    private BatchIds(Set<UUID> ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * @throws IllegalArgumentException пустой список или больше {@code max} разных id
+     */
+    public static BatchIds of(Collection<UUID> requested, int max) {
+        Set<UUID> ids = new LinkedHashSet<>(requested);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("Пустой список ids");
+        }
+        if (ids.size() > max) {
+            throw new IllegalArgumentException("Слишком много ids: " + ids.size() + " > " + max);
+        }
+        return new BatchIds(ids);
+    }
+
+    public Set<UUID> ids() {
+        return ids;
+    }
+
+    /** Найденные строки в порядке запрошенных id. */
+    public <T> List<T> ordered(List<T> rows, Function<T, UUID> idOf) {
+        Map<UUID, T> byId = index(rows, idOf);
+        List<T> result = new ArrayList<>(byId.size());
+        for (UUID id : ids) {
+            T row = byId.get(id);
+            if (row != null) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    /** Запрошенные id, для которых строк нет. */
+    public <T> List<UUID> missing(List<T> rows, Function<T, UUID> idOf) {
+        Map<UUID, T> byId = index(rows, idOf);
+        return ids.stream().filter(id -> !byId.containsKey(id)).toList();
+    }
+
+    private static <T> Map<UUID, T> index(List<T> rows, Function<T, UUID> idOf) {
+        Map<UUID, T> byId = new LinkedHashMap<>();
+        for (T row : rows) {
+            byId.put(idOf.apply(row), row);
+        }
+        return byId;
+    }
+}
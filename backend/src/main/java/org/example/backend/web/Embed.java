@@ -0,0 +1,39 @@
+package org.example.backend.web;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Связанные ресурсы, которые клиент просит встроить в ответ ({@code ?embed=author,...}),
+ * чтобы не догружать их отдельными запросами.
+ */
+public enum Embed {
+
+    /** Краткие данные автора поста. */
+    AUTHOR;
+
+    /**
+     * Разобрать параметр {@code embed}: значения через запятую, регистр не важен.
+     *
+     * @throws IllegalArgumentException неизвестное значение
+     */
+    public static Set<Embed> parse(String raw) {
+        Set<Embed> result = EnumSet.noneOf(Embed.class);
+        if (raw == null || raw.isBlank()) {
+            return result;
+        }
+        for (String part : raw.split(",")) {
+            String name = part.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            try {
+                result.add(valueOf(name.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Неизвестное значение embed: " + name);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.backend.web;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Какие поля поста нужны клиенту: {@code ?fields=title,excerpt} или {@code ?view=list}.
+ * <p>
+ * Выбор работает на двух уровнях: запрос к БД читает только нужные колонки (для списков —
+ * короткий {@code excerpt} вместо TEXT-колонки {@code content}), а JSON-фильтр {@value #FILTER}
+ * убирает из ответа всё, что не запрошено. Без параметров ответ прежний — полный пост.
+ */
+public final class PostFields {
+
+    /** Имя JSON-фильтра на {@link org.example.backend.dto.PostResponse}. */
+    public static final String FILTER = "postFields";
+
+    public static final String ID = "id";
+    public static final String TITLE = "title";
+    public static final String CONTENT = "content";
+    public static final String EXCERPT = "excerpt";
+    public static final String CREATED_DATE = "createdDate";
+    public static final String UPDATED_DATE = "updatedDate";
+    public static final String AUTHOR_ID = "authorId";
+    public static final String COMMENT_COUNT = "commentCount";
+    public static final String LAST_COMMENT_AT = "lastCommentAt";
+    /** Встроенный автор; то же, что {@code ?embed=author}. */
+    public static final String AUTHOR = "author";
+
+    private static final List<String> KNOWN = List.of(ID, TITLE, CONTENT, EXCERPT, CREATED_DATE, UPDATED_DATE,
+            AUTHOR_ID, COMMENT_COUNT, LAST_COMMENT_AT, AUTHOR);
+
+    /** Фильтр по умолчанию: поля не отбираются. */
+    public static final FilterProvider SERIALIZE_ALL = new SimpleFilterProvider()
+            .addFilter(FILTER, SimpleBeanPropertyFilter.serializeAll());
+
+    /** Полный пост, как без параметров. */
+    public static final PostFields FULL = new PostFields(fieldsExcept(EXCERPT), false, false);
+
+    /** Представление для списков: анонс вместо текста. */
+    public static final PostFields LIST = new PostFields(fieldsExcept(CONTENT), false, true);
+
+    private final Set<String> names;
+    private final boolean withAuthor;
+    private final boolean sparse;
+
+    private PostFields(Set<String> names, boolean withAuthor, boolean sparse) {
+        this.names = names;
+        this.withAuthor = withAuthor;
+        this.sparse = sparse;
+    }
+
+    /**
+     * Разобрать параметры запроса.
+     *
+     * @param fields поля через запятую; {@code id} отдаётся всегда
+     * @param view   {@code list} или {@code full}; при {@code fields} не учитывается
+     * @param embed  значение {@code ?embed=} ({@link Embed})
+     * @throws IllegalArgumentException неизвестное поле или представление
+     */
+    public static PostFields parse(String fields, String view, String embed) {
+        boolean embedAuthor = Embed.parse(embed).contains(Embed.AUTHOR);
+        if (fields != null && !fields.isBlank()) {
+            Set<String> names = new LinkedHashSet<>();
+            names.add(ID);
+            for (String part : fields.split(",")) {
+                String name = part.trim();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                if (!KNOWN.contains(name)) {
+                    throw new IllegalArgumentException("Неизвестное поле: " + name);
+                }
+                names.add(name);
+            }
+            boolean withAuthor = embedAuthor || names.remove(AUTHOR);
+            return new PostFields(Collections.unmodifiableSet(names), withAuthor, true);
+        }
+        PostFields base = view(view);
+        return embedAuthor ? new PostFields(base.names, true, base.sparse) : base;
+    }
+
+    /** Поля из параметров HTTP-запроса; {@code null}, если параметры некорректны. */
+    public static PostFields fromRequest(HttpServletRequest request) {
+        try {
+            return parse(request.getParameter("fields"), request.getParameter("view"), request.getParameter("embed"));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static PostFields view(String view) {
+        if (view == null || view.isBlank()) {
+            return FULL;
+        }
+        return switch (view.trim().toLowerCase(Locale.ROOT)) {
+            case "full" -> FULL;
+            case "list" -> LIST;
+            default -> throw new IllegalArgumentException("Неизвестное представление: " + view);
+        };
+    }
+
+    private static Set<String> fieldsExcept(String excluded) {
+        Set<String> names = new LinkedHashSet<>(KNOWN);
+        names.remove(AUTHOR);
+        names.remove(excluded);
+        return Collections.unmodifiableSet(names);
+    }
+
+    /** Нужно ли поле в ответе (автор — см. {@link #withAuthor()}). */
+    public boolean has(String field) {
+        return names.contains(field);
+    }
+
+    public Set<String> names() {
+        return names;
+    }
+
+    public boolean withAuthor() {
+        return withAuthor;
+    }
+
+    /** JSON-фильтр для ответа или {@code null}, если отбирать поля не нужно. */
+    public FilterProvider filter() {
+        if (!sparse) {
+            return null;
+        }
+        Set<String> visible = new LinkedHashSet<>(names);
+        if (withAuthor) {
+            visible.add(AUTHOR);
+        }
+        return new SimpleFilterProvider()
+                .addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(visible));
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.backend.web;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Оставляет в постах ответа только поля из {@code ?fields=} / {@code ?view=} ({@link PostFields}).
+ * Другие DTO фильтр не затрагивает.
+ */
+@ControllerAdvice
+public class PostFieldsResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        PostFields fields = PostFields.fromRequest(servletRequest.getServletRequest());
+        if (fields != null && fields.filter() != null) {
+            bodyContainer.setFilters(fields.filter());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.backend.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+
+/**
+ * Версия ресурса для условных GET ({@code ETag} / {@code Last-Modified} / 304).
+ * <p>
+ * Строится из тех же полей, что попадают в тело ответа, поэтому её можно получить
+ * и дешёвым запросом "только метки времени", и из уже загруженного DTO — ETag совпадёт.
+ *
+ * <p>
+ * {@code Last-Modified} сравнивает только метки времени. Если счётчик меняется без них
+ * (счётчики комментариев и ответов пишет {@code CommentCounterBuffer}), версию нужно отдавать
+ * через {@link #withoutLastModified()} — иначе клиент с одним {@code If-Modified-Since} получит 304
+ * с устаревшим счётчиком.
+ *
+ * @param modified         основная метка изменения ресурса
+ * @param secondary        вторая метка, меняющая представление (может быть {@code null})
+ * @param counter          счётчик, меняющий представление без смены меток (например, число ответов)
+ * @param withLastModified отдавать ли {@code Last-Modified} и проверять ли {@code If-Modified-Since}
+ */
+public record ResourceVersion(LocalDateTime modified, LocalDateTime secondary, long counter, boolean withLastModified) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    public ResourceVersion(LocalDateTime modified, LocalDateTime secondary, long counter) {
+        this(modified, secondary, counter, true);
+    }
+
+    /** Та же версия, но сравнение только по ETag: для ресурсов, чей счётчик меняется без меток времени. */
+    public ResourceVersion withoutLastModified() {
+        return new ResourceVersion(modified, secondary, counter, false);
+    }
+
+    /** Есть ли в запросе условные заголовки — без них проверять версию заранее незачем. */
+    public static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    /** Слабый ETag: сами метки, а не хэш тела — без коллизий и без сериализации. */
+    public String etag() {
+        String raw = modified + "|" + secondary + "|" + counter;
+        return "W/\"" + ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Время последнего изменения (наибольшая из меток), миллисекунды эпохи;
+     * {@code -1}, если меток нет или {@code Last-Modified} не отдаётся.
+     */
+    public long lastModifiedMillis() {
+        if (!withLastModified) {
+            return -1;
+        }
+        LocalDateTime last = modified;
+        if (last == null || (secondary != null && secondary.isAfter(last))) {
+            last = secondary;
+        }
+        return last == null ? -1 : last.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Проверить {@code If-None-Match} / {@code If-Modified-Since}.
+     * При совпадении Spring уже выставил статус 304 и заголовки версии.
+     */
+    public boolean notModified(WebRequest request) {
+        long lastModified = lastModifiedMillis();
+        return lastModified < 0
+                ? request.checkNotModified(etag())
+                : request.checkNotModified(etag(), lastModified);
+    }
+
+    /** Ответ 304 без тела. */
+    public <T> ResponseEntity<T> notModifiedResponse() {
+        return headers(ResponseEntity.status(HttpStatus.NOT_MODIFIED)).build();
+    }
+
+    /** Ответ 200 с заголовками версии. */
+    public <T> ResponseEntity<T> ok(T body) {
+        return headers(ResponseEntity.ok()).body(body);
+    }
+
+    private ResponseEntity.BodyBuilder headers(ResponseEntity.BodyBuilder builder) {
+        builder.eTag(etag());
+        long lastModified = lastModifiedMillis();
+        if (lastModified >= 0) {
+            builder.lastModified(lastModified);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,25 @@
+-- Пересчёт денормализованных счётчиков по фактическим данным.
+-- Выполняется вручную: после первого развёртывания счётчиков
+-- или если буфер не успел сброситься (аварийная остановка).
+
+UPDATE posts p
+SET comment_count   = coalesce(s.cnt, 0),
+    last_comment_at = s.last_at
+FROM posts p2
+LEFT JOIN (
+    SELECT post_id, count(*) FILTER (WHERE deleted_date IS NULL) AS cnt, max(created_date) AS last_at
+    FROM comments
+    GROUP BY post_id
+) s ON s.post_id = p2.id
+WHERE p.id = p2.id;
+
+UPDATE comments c
+SET reply_count = coalesce(s.cnt, 0)
+FROM comments c2
+LEFT JOIN (
+    SELECT parent_comment_id, count(*) AS cnt
+    FROM comments
+    WHERE deleted_date IS NULL AND parent_comment_id IS NOT NULL
+    GROUP BY parent_comment_id
+) s ON s.parent_comment_id = c2.id
+WHERE c.id = c2.id;
@@ -0,0 +1,65 @@
+-- Схема на момент перехода на миграции: то, что создавали ddl-auto=update и стартовый скрипт поиска
+-- (генерируемые колонки search_vector в posts и comments и GIN-индексы idx_*_search_vector, см. 9c03cea).
+-- На существующей БД не выполняется — Flyway принимает её за версию 1 (baseline-on-migrate).
+-- Имена ограничений совпадают со сгенерированными Hibernate, чтобы схемы не расходились.
+
+CREATE TABLE users (
+    id            uuid          NOT NULL,
+    avatar_url    varchar(1024),
+    bio           varchar(4096),
+    birth_date    date,
+    created_at    timestamp(6),
+    email         varchar(255)  NOT NULL,
+    gender        varchar(255) CHECK (gender IN ('MALE', 'FEMALE')),
+    password_hash varchar(100)  NOT NULL,
+    updated_at    timestamp(6),
+    username      varchar(30)   NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email),
+    CONSTRAINT ukr43af9ap4edm43mmtq01oddj6 UNIQUE (username)
+);
+
+CREATE TABLE posts (
+    id              uuid         NOT NULL,
+    comment_count   bigint DEFAULT 0 NOT NULL,
+    content         text         NOT NULL,
+    created_date    timestamp(6),
+    deleted_date    timestamp(6),
+    last_comment_at timestamp(6),
+    title           varchar(255) NOT NULL,
+    updated_date    timestamp(6),
+    author_id       uuid         NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk6xvn0811tkyo3nfjk2xvqx6ns FOREIGN KEY (author_id) REFERENCES users
+);
+
+CREATE TABLE comments (
+    id                uuid          NOT NULL,
+    content           varchar(4098) NOT NULL,
+    created_date      timestamp(6)  NOT NULL,
+    deleted_date      timestamp(6),
+    edited_date       timestamp(6)  NOT NULL,
+    reply_count       bigint DEFAULT 0 NOT NULL,
+    created_by        uuid          NOT NULL,
+    parent_comment_id uuid,
+    post_id           uuid          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk44lfn5qjtv4kjiuvwnq6nl0e7 FOREIGN KEY (created_by) REFERENCES users,
+    CONSTRAINT fk7h839m3lkvhbyv3bcdv7sm4fj FOREIGN KEY (parent_comment_id) REFERENCES comments,
+    CONSTRAINT fkh4c7lvsc298whoyd4w9ta25cr FOREIGN KEY (post_id) REFERENCES posts
+);
+
+-- Полнотекстовый поиск: колонки search_vector генерируются СУБД и не отображаются в сущностях
+
+ALTER TABLE posts ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('russian'::regconfig, coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('russian'::regconfig, coalesce(content, '')), 'B')
+    ) STORED;
+
+CREATE INDEX idx_posts_search_vector ON posts USING GIN (search_vector);
+
+ALTER TABLE comments ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('russian'::regconfig, coalesce(content, ''))) STORED;
+
+CREATE INDEX idx_comments_search_vector ON comments USING GIN (search_vector);
@@ -0,0 +1,21 @@
+-- Индексы под запросы PostRepository и CommentRepository.
+-- CONCURRENTLY — чтобы не блокировать запись в большие таблицы; такие операторы
+-- Flyway выполняет вне транзакции, поэтому IF NOT EXISTS — для повторного запуска после сбоя.
+
+-- Лента и выгрузка постов: keyset по (created_date, id) в обе стороны
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_posts_created_id
+    ON posts (created_date, id);
+
+-- Активные посты автора (?login=...): поиск по автору и keyset внутри него
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_posts_author_active
+    ON posts (author_id, created_date, id)
+    WHERE deleted_date IS NULL;
+
+-- Комментарии поста по времени: список, ветка, выгрузка, версия ветки для условного GET
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_post_created
+    ON comments (post_id, created_date, id);
+
+-- Ответы на комментарий: рекурсивный обход ветки
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_parent
+    ON comments (parent_comment_id)
+    WHERE parent_comment_id IS NOT NULL;
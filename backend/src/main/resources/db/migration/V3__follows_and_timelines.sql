@@ -0,0 +1,28 @@
+-- Подписки между пользователями и материализованные домашние ленты (fan-out on write).
+
+-- Число подписчиков ведётся при подписке/отписке: по нему решается, раскладывать ли посты автора по лентам
+ALTER TABLE users ADD COLUMN follower_count bigint DEFAULT 0 NOT NULL;
+
+CREATE TABLE follows (
+    follower_id uuid         NOT NULL REFERENCES users ON DELETE CASCADE,
+    followee_id uuid         NOT NULL REFERENCES users ON DELETE CASCADE,
+    created_at  timestamp(6) NOT NULL DEFAULT now(),
+    PRIMARY KEY (follower_id, followee_id),
+    CHECK (follower_id <> followee_id)
+);
+
+-- подписчики автора — для раскладки его нового поста
+CREATE INDEX idx_follows_followee ON follows (followee_id, follower_id);
+
+-- Лента пользователя: ключ совпадает с keyset-курсором (created_date, post_id) по убыванию.
+-- Пост однозначно задаёт created_date, так что ключ заодно исключает дубли.
+CREATE TABLE timeline_entries (
+    user_id      uuid         NOT NULL REFERENCES users ON DELETE CASCADE,
+    created_date timestamp(6) NOT NULL,
+    post_id      uuid         NOT NULL REFERENCES posts ON DELETE CASCADE,
+    author_id    uuid         NOT NULL,
+    PRIMARY KEY (user_id, created_date, post_id)
+);
+
+-- удаление поста из всех лент при мягком удалении
+CREATE INDEX idx_timeline_entries_post ON timeline_entries (post_id);
@@ -0,0 +1,12 @@
+-- Анонс поста для списков: первые 300 символов текста со схлопнутыми пробелами.
+-- Колонку, как и search_vector, ведёт сама СУБД при каждом INSERT/UPDATE content,
+-- поэтому списки читают короткий excerpt и не трогают TEXT-колонку content.
+-- Добавление STORED-колонки переписывает таблицу под эксклюзивной блокировкой — выполнять в окно обслуживания.
+ALTER TABLE posts ADD COLUMN excerpt text
+    GENERATED ALWAYS AS (
+        CASE
+            WHEN char_length(regexp_replace(btrim(content), '\s+', ' ', 'g')) > 300
+                THEN left(regexp_replace(btrim(content), '\s+', ' ', 'g'), 299) || '…'
+            ELSE regexp_replace(btrim(content), '\s+', ' ', 'g')
+        END
+    ) STORED;
@@ -0,0 +1,5 @@
+-- Постраничные ветки комментариев: комментарии верхнего уровня поста (parent_comment_id IS NULL)
+-- и ответы на комментарий — keyset по (created_date, id) внутри одного родителя.
+-- Страница ветки и превью ответов — короткие диапазоны этого индекса, сколько бы комментариев ни было у поста.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_post_parent_created
+    ON comments (post_id, parent_comment_id, created_date, id);
@@ -0,0 +1,10 @@
+-- Разложен ли пост по лентам подписчиков при публикации. Решение принимается один раз, по числу
+-- подписчиков автора в момент публикации: посты, которые не раскладывались (fanned_out = false),
+-- лента подмешивает при чтении, даже если автор потом опустится ниже app.feed.fanout-threshold.
+-- DEFAULT-константа — ADD COLUMN без переписывания таблицы.
+ALTER TABLE posts ADD COLUMN fanned_out boolean DEFAULT true NOT NULL;
+
+-- Посты авторов, которые сейчас выше порога, до этой миграции по лентам не раскладывались.
+-- 10000 — порог по умолчанию; при другом app.feed.fanout-threshold выполнить UPDATE со своим значением.
+UPDATE posts SET fanned_out = false
+WHERE author_id IN (SELECT id FROM users WHERE follower_count > 10000);
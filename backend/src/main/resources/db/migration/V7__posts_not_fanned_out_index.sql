@@ -0,0 +1,5 @@
+-- Не разложенные по лентам посты автора (fan-out on read): keyset по (created_date, id).
+-- Частичный индекс — таких постов мало, и у «лёгких» авторов проба индекса пустая.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_posts_author_not_fanned_out
+    ON posts (author_id, created_date, id)
+    WHERE deleted_date IS NULL AND NOT fanned_out;
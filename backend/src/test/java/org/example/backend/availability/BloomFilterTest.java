@@ -0,0 +1,60 @@
+package org.example.backend.availability;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    private static final int CAPACITY = 100_000;
+
+    @Test
+    void addedValuesAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(CAPACITY, 0.01);
+        for (int i = 0; i < CAPACITY; i++) {
+            filter.put("u:user" + i);
+        }
+
+        for (int i = 0; i < CAPACITY; i++) {
+            assertThat(filter.mightContain("u:user" + i)).as("u:user%d", i).isTrue();
+        }
+        assertThat(filter.entries()).isEqualTo(CAPACITY);
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.05, 0.01, 0.001})
+    void falsePositiveRateAtCapacityStaysNearConfigured(double rate) {
+        BloomFilter filter = new BloomFilter(CAPACITY, rate);
+        for (int i = 0; i < CAPACITY; i++) {
+            filter.put("e:user" + i + "@example.org");
+        }
+
+        int probes = 200_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            // такие строки не добавлялись: каждое «возможно, есть» — ложное срабатывание
+            if (filter.mightContain("e:other" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+        assertThat((double) falsePositives / probes).isLessThanOrEqualTo(2 * rate);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(CAPACITY, 0.01);
+
+        assertThat(filter.mightContain("u:alice")).isFalse();
+        assertThat(filter.mightContain("")).isFalse();
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(CAPACITY, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(CAPACITY, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.backend.availability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.backend.config.UserAvailabilityProperties;
+import org.example.backend.repository.UserKeyRow;
+import org.example.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TakenNamesTest {
+
+    /** Транзакция для потокового чтения в тесте не нужна: шаблону достаточно статуса без соединения. */
+    private static final PlatformTransactionManager NO_TRANSACTIONS = new PlatformTransactionManager() {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    };
+
+    /** Таблица users: значение попадает сюда («коммит») раньше, чем в {@link TakenNames#add}. */
+    private final List<UserKeyRow> table = new CopyOnWriteArrayList<>();
+    private final Set<String> usernames = ConcurrentHashMap.newKeySet();
+    private final UserRepository users = mock(UserRepository.class);
+    private final UserAvailabilityProperties properties = new UserAvailabilityProperties();
+    private TakenNames takenNames;
+
+    private record Row(String username, String email) implements UserKeyRow {
+
+        @Override
+        public String getUsername() {
+            return username;
+        }
+
+        @Override
+        public String getEmail() {
+            return email;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        properties.setExpectedUsers(1_000);
+        when(users.count()).thenAnswer(invocation -> (long) table.size());
+        when(users.existsByUsername(anyString())).thenAnswer(invocation -> usernames.contains(invocation.<String>getArgument(0)));
+        when(users.streamKeys()).thenAnswer(invocation -> table.stream());
+        takenNames = new TakenNames(users, properties, NO_TRANSACTIONS, new SimpleMeterRegistry());
+    }
+
+    private void register(String username) {
+        table.add(new Row(username, username + "@example.org"));
+        usernames.add(username);
+        takenNames.add(username, username + "@example.org");
+    }
+
+    /** Снимок таблицы, во время чтения которого регистрируется {@code username} — в снимок он не попадает. */
+    private void registerWhileReading(String username) {
+        when(users.streamKeys()).thenAnswer(invocation -> List.copyOf(table).stream()
+                .peek(row -> {
+                    if (!usernames.contains(username)) {
+                        register(username);
+                    }
+                }));
+    }
+
+    @Test
+    void answersFreeNamesWithoutDatabase() {
+        register("alice");
+        takenNames.rebuildIfNeeded();
+
+        assertThat(takenNames.isUsernameTaken("alice")).isTrue();
+        assertThat(takenNames.isUsernameTaken("bob")).isFalse();
+        verify(users).existsByUsername("alice");
+        verify(users, never()).existsByUsername("bob");
+    }
+
+    @Test
+    void keepsNameRegisteredWhileFirstFilterIsBuilt() {
+        register("alice");
+        registerWhileReading("carol");
+
+        takenNames.rebuildIfNeeded();
+
+        assertThat(takenNames.isUsernameTaken("carol")).isTrue();
+        assertThat(takenNames.isUsernameTaken("alice")).isTrue();
+    }
+
+    @Test
+    void keepsNameRegisteredWhileFilterIsRebuilt() {
+        properties.setMaxAge(Duration.ZERO);
+        register("alice");
+        takenNames.rebuildIfNeeded();
+        registerWhileReading("carol");
+
+        takenNames.rebuildIfNeeded();
+
+        assertThat(takenNames.isUsernameTaken("carol")).isTrue();
+        assertThat(takenNames.isUsernameTaken("alice")).isTrue();
+    }
+
+    @Test
+    void keepsNamesRegisteredConcurrentlyWithRebuilds() throws InterruptedException {
+        properties.setMaxAge(Duration.ZERO);
+        takenNames.rebuildIfNeeded();
+        int count = 5_000;
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                register("user" + i);
+            }
+        });
+
+        writer.start();
+        while (writer.isAlive()) {
+            takenNames.rebuildIfNeeded();
+        }
+        writer.join();
+
+        for (int i = 0; i < count; i++) {
+            assertThat(takenNames.isUsernameTaken("user" + i)).as("user%d", i).isTrue();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.backend.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.backend.config.RateLimitProperties;
+import org.example.backend.exception.RestExceptionHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    /** Два комментария в минуту: токен раз в 30 секунд. */
+    private final RateLimiter limiter = new RateLimiter(properties(), registry, now::get);
+
+    private static RateLimitProperties properties() {
+        var comments = new RateLimitProperties.Group();
+        comments.setMethods(List.of("POST"));
+        comments.setPaths(List.of("/api/comments/create"));
+        comments.setCapacity(2);
+        comments.setPeriod(Duration.ofMinutes(1));
+        var properties = new RateLimitProperties();
+        properties.getGroups().put("comments", comments);
+        return properties;
+    }
+
+    @Test
+    void rejectsOverBurstWithRetryAfterUntilNextToken() {
+        limiter.check("POST", "/api/comments/create", "alice");
+        limiter.check("POST", "/api/comments/create", "alice");
+
+        assertThat(retryAfter("alice")).isEqualTo(Duration.ofSeconds(30));
+        assertThat(registry.counter(RateLimiter.METRIC, "group", "comments").count()).isEqualTo(1);
+    }
+
+    @Test
+    void retryAfterShrinksWithTimeAndRoundsUp() {
+        exhaust("alice");
+
+        advance(Duration.ofSeconds(10));
+        assertThat(retryAfter("alice")).isEqualTo(Duration.ofSeconds(20));
+        advance(Duration.ofMillis(19_500));
+        assertThat(retryAfter("alice")).isEqualTo(Duration.ofSeconds(1));
+        advance(Duration.ofMillis(500));
+        assertThatCode(() -> limiter.check("POST", "/api/comments/create", "alice")).doesNotThrowAnyException();
+        assertThat(retryAfter("alice")).isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void refillsBurstAfterPeriod() {
+        exhaust("alice");
+
+        advance(Duration.ofMinutes(5));
+        limiter.check("POST", "/api/comments/create", "alice");
+        limiter.check("POST", "/api/comments/create", "alice");
+        assertThat(retryAfter("alice")).isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void bucketsArePerClientAndPerMatchedRequest() {
+        exhaust("alice");
+
+        assertThatCode(() -> limiter.check("POST", "/api/comments/create", "bob")).doesNotThrowAnyException();
+        assertThatCode(() -> limiter.check("GET", "/api/comments/create", "alice")).doesNotThrowAnyException();
+        assertThatCode(() -> limiter.check("POST", "/api/posts/create", "alice")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void respondsWith429AndRetryAfterSeconds() {
+        exhaust("alice");
+
+        var response = new RestExceptionHandler().handleRateLimit(
+                catchThrowableOfType(RateLimitExceededException.class,
+                        () -> limiter.check("POST", "/api/comments/create", "alice")));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("30");
+    }
+
+    private void exhaust(String client) {
+        limiter.check("POST", "/api/comments/create", client);
+        limiter.check("POST", "/api/comments/create", client);
+    }
+
+    private Duration retryAfter(String client) {
+        var rejected = catchThrowableOfType(RateLimitExceededException.class,
+                () -> limiter.check("POST", "/api/comments/create", client));
+        assertThat(rejected).as("запрос должен быть отклонён").isNotNull();
+        return rejected.getRetryAfter();
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+}
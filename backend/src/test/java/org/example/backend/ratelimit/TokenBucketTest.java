@@ -0,0 +1,61 @@
+package org.example.backend.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /** 5 запросов за 5 секунд: токен раз в секунду. */
+    private final TokenBucket bucket = new TokenBucket(5, 5 * SECOND, 0);
+
+    @Test
+    void allowsBurstUpToCapacity() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire(0)).isZero();
+        }
+        assertThat(bucket.tryAcquire(0)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void rejectedRequestDoesNotConsumeToken() {
+        drain(0);
+
+        assertThat(bucket.tryAcquire(0)).isEqualTo(SECOND);
+        assertThat(bucket.tryAcquire(SECOND / 4)).isEqualTo(SECOND * 3 / 4);
+        assertThat(bucket.tryAcquire(SECOND)).isZero();
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        drain(0);
+
+        assertThat(bucket.tryAcquire(SECOND - 1)).isEqualTo(1);
+        assertThat(bucket.tryAcquire(SECOND)).isZero();
+        assertThat(bucket.tryAcquire(SECOND)).isEqualTo(SECOND);
+        assertThat(bucket.tryAcquire(3 * SECOND)).isZero();
+        assertThat(bucket.tryAcquire(3 * SECOND)).isZero();
+        assertThat(bucket.tryAcquire(3 * SECOND)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void idleBucketRefillsOnlyToCapacity() {
+        drain(0);
+
+        long later = 60 * SECOND;
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire(later)).isZero();
+        }
+        assertThat(bucket.tryAcquire(later)).isEqualTo(SECOND);
+    }
+
+    private void drain(long now) {
+        while (bucket.tryAcquire(now) == 0) {
+            // выбираем все токены
+        }
+    }
+}
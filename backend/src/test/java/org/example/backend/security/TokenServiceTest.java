@@ -0,0 +1,114 @@
+package org.example.backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenServiceTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret";
+    private static final Duration TTL = Duration.ofHours(1);
+    private static final Duration SKEW = Duration.ofSeconds(30);
+    private static final Instant NOW = Instant.parse("2025-03-01T12:00:00Z");
+    private static final UUID USER_ID = UUID.fromString("6f1c2a3e-0000-4000-8000-000000000001");
+
+    private static TokenService at(Instant instant) {
+        return new TokenService(SECRET, TTL, SKEW, Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    private static String issueAt(Instant instant) {
+        TokenService service = at(instant);
+        return service.issue(service.claimsFor(USER_ID, "alice"));
+    }
+
+    @Test
+    void issuedTokenVerifies() {
+        var claims = at(NOW).verify(issueAt(NOW));
+
+        assertThat(claims).isPresent();
+        assertThat(claims.get().userId()).isEqualTo(USER_ID);
+        assertThat(claims.get().username()).isEqualTo("alice");
+        assertThat(claims.get().expiresAt()).isEqualTo(NOW.plus(TTL));
+    }
+
+    @Test
+    void rejectsBadSignature() {
+        String token = issueAt(NOW);
+        String payload = token.substring(0, token.indexOf('.'));
+        String signature = token.substring(token.indexOf('.') + 1);
+        String flipped = (signature.charAt(0) == 'A' ? "B" : "A") + signature.substring(1);
+
+        assertThat(at(NOW).verify(payload + "." + flipped)).isEmpty();
+        // чужая полезная нагрузка с подписью от другой
+        String other = at(NOW).issue(new TokenService.Claims(UUID.randomUUID(), "mallory", NOW.plus(TTL)));
+        assertThat(at(NOW).verify(other.substring(0, other.indexOf('.')) + "." + signature)).isEmpty();
+    }
+
+    @Test
+    void rejectsTokenSignedWithAnotherSecret() {
+        TokenService other = new TokenService("another-secret", TTL, SKEW, Clock.fixed(NOW, ZoneOffset.UTC));
+        String token = other.issue(other.claimsFor(USER_ID, "alice"));
+
+        assertThat(at(NOW).verify(token)).isEmpty();
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        String token = issueAt(NOW);
+        Instant expiresAt = NOW.plus(TTL);
+
+        assertThat(at(expiresAt.minusSeconds(1)).verify(token)).isPresent();
+        assertThat(at(expiresAt.plus(SKEW)).verify(token)).isEmpty();
+        assertThat(at(expiresAt.plus(Duration.ofDays(1))).verify(token)).isEmpty();
+    }
+
+    @Test
+    void acceptsTokenWithinClockSkew() {
+        // токен выпустил экземпляр, чьи часы отстают на 20 секунд
+        String token = issueAt(NOW.minusSeconds(20));
+        Instant expiresAt = NOW.minusSeconds(20).plus(TTL);
+
+        assertThat(at(expiresAt.plusSeconds(20)).verify(token)).isPresent();
+        assertThat(at(expiresAt.plus(SKEW).minusSeconds(1)).verify(token)).isPresent();
+        assertThat(at(expiresAt.plus(SKEW)).verify(token)).isEmpty();
+    }
+
+    @Test
+    void rejectsMalformedToken() {
+        TokenService service = at(NOW);
+        long exp = NOW.plus(TTL).getEpochSecond();
+
+        assertThat(service.verify("")).isEmpty();
+        assertThat(service.verify("no-dot")).isEmpty();
+        assertThat(service.verify(".signature")).isEmpty();
+        assertThat(service.verify("payload.")).isEmpty();
+        assertThat(service.verify("%%%.%%%")).isEmpty();
+        // подпись верна, но внутри не то
+        assertThat(service.verify(signed(USER_ID + ":alice"))).isEmpty();
+        assertThat(service.verify(signed("not-a-uuid:alice:" + exp))).isEmpty();
+        assertThat(service.verify(signed(USER_ID + ":alice:soon"))).isEmpty();
+    }
+
+    /** Токен с произвольной полезной нагрузкой и правильной подписью. */
+    private static String signed(String payload) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String encodedPayload = encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return encodedPayload + "." + encoder.encodeToString(mac.doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}